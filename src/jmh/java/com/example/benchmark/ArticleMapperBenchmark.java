@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import com.example.entity.Article;
+import com.example.mapper.ArticleMapper;
+import com.example.mapper.ArticleMapperImpl;
+import com.example.model.dto.ArticleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping done on every cache miss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleMapperBenchmark {
+
+    @Param({"1024", "131072"})
+    private int contentSize;
+
+    private ArticleMapper mapper;
+    private Article article;
+
+    @Setup
+    public void setUp() {
+        mapper = new ArticleMapperImpl();
+        article = ArticlePayloads.article(42, contentSize);
+    }
+
+    @Benchmark
+    public ArticleDTO toDTO() {
+        return mapper.toDTO(article);
+    }
+}
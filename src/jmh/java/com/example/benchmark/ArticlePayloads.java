@@ -0,0 +1,53 @@
+package com.example.benchmark;
+
+import com.example.entity.Article;
+import com.example.model.dto.ArticleDTO;
+import com.example.model.enumeration.ArticleStatus;
+import com.example.support.WordText;
+
+import java.time.Instant;
+
+/**
+ * Article fixtures shaped like production rows: a short summary, and {@link WordText} content of a given size, so
+ * that serializers and compressors see realistic text
+ */
+public final class ArticlePayloads {
+
+    private ArticlePayloads() {
+    }
+
+    public static ArticleDTO articleDTO(long id, int contentSize) {
+        ArticleDTO dto = new ArticleDTO();
+        dto.setId(id);
+        dto.setVersion(3L);
+        dto.setIsActive(Boolean.TRUE);
+        dto.setCreatedBy("system");
+        dto.setCreatedAt(Instant.parse("2025-07-15T12:38:02.688925Z"));
+        dto.setLastModifiedBy("editor");
+        dto.setLastModifiedAt(Instant.parse("2025-07-16T08:12:45.120000Z"));
+        dto.setName("Article " + id);
+        dto.setPath("/articles/category-" + (id % 20) + "/article-" + id);
+        dto.setSummary(WordText.of(300));
+        dto.setContent(WordText.of(contentSize));
+        dto.setStatus(ArticleStatus.ACTIVE);
+        return dto;
+    }
+
+    public static Article article(long id, int contentSize) {
+        ArticleDTO dto = articleDTO(id, contentSize);
+        Article article = new Article();
+        article.setId(dto.getId());
+        article.setVersion(dto.getVersion());
+        article.setIsActive(dto.getIsActive());
+        article.setCreatedBy(dto.getCreatedBy());
+        article.setCreatedAt(dto.getCreatedAt());
+        article.setLastModifiedBy(dto.getLastModifiedBy());
+        article.setLastModifiedAt(dto.getLastModifiedAt());
+        article.setName(dto.getName());
+        article.setPath(dto.getPath());
+        article.setSummary(dto.getSummary());
+        article.setContent(dto.getContent());
+        article.setStatus(dto.getStatus());
+        return article;
+    }
+}
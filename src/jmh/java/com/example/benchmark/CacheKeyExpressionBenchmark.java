@@ -0,0 +1,91 @@
+package com.example.benchmark;
+
+import com.example.model.criteria.ArticleCriteria;
+import com.example.service.ArticleService;
+import com.example.tech.jhipster.service.filter.StringFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL evaluation of the {@code @Cacheable} keys of {@link ArticleService}, read from the annotations themselves.
+ * Expressions are parsed once, as the cache interceptor does; every call builds a method-based evaluation context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheKeyExpressionBenchmark {
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private Method findById;
+    private Expression findByIdKey;
+    private Object[] findByIdArgs;
+
+    private Method findByPath;
+    private Expression findByPathKey;
+    private Object[] findByPathArgs;
+
+    private Method findByCriteria;
+    private Expression findByCriteriaKey;
+    private Object[] findByCriteriaArgs;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        SpelExpressionParser parser = new SpelExpressionParser();
+
+        findById = ArticleService.class.getMethod("findById", Long.class);
+        findByIdKey = parser.parseExpression(findById.getAnnotation(Cacheable.class).key());
+        findByIdArgs = new Object[]{42L};
+
+        findByPath = ArticleService.class.getMethod("getDTOByPath", String.class);
+        findByPathKey = parser.parseExpression(findByPath.getAnnotation(Cacheable.class).key());
+        findByPathArgs = new Object[]{"/articles/category-2/article-42"};
+
+        findByCriteria = ArticleService.class.getMethod("findByCriteria", ArticleCriteria.class);
+        findByCriteriaKey = parser.parseExpression(findByCriteria.getAnnotation(Cacheable.class).key());
+        ArticleCriteria criteria = new ArticleCriteria();
+        criteria.setName(new StringFilter().setContains("redis"));
+        criteria.setPath(new StringFilter().setContains("/articles/category-2"));
+        findByCriteriaArgs = new Object[]{criteria};
+    }
+
+    @Benchmark
+    public Object idKey() {
+        return evaluate(findByIdKey, findById, findByIdArgs);
+    }
+
+    @Benchmark
+    public Object pathKey() {
+        return evaluate(findByPathKey, findByPath, findByPathArgs);
+    }
+
+    @Benchmark
+    public Object criteriaKey() {
+        return evaluate(findByCriteriaKey, findByCriteria, findByCriteriaArgs);
+    }
+
+    private Object evaluate(Expression expression, Method method, Object[] args) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, args, parameterNameDiscoverer);
+        return expression.getValue(context);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.benchmark;
+
+import com.example.config.RedisConfig;
+import com.example.config.cache.CacheValueCodec;
+import com.example.config.properties.RedisProperties;
+import com.example.model.dto.ArticleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value serialization: the default-typed JSON serializer against the alternative codecs, on article payloads
+ * from a short post to a long one. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValueSerializationBenchmark {
+
+    @Param({"1024", "16384", "131072"})
+    private int contentSize;
+
+    private GenericJackson2JsonRedisSerializer jsonRedisSerializer;
+    private CacheValueCodec jsonCodec;
+    private CacheValueCodec smileCodec;
+    private CacheValueCodec cborCodec;
+
+    private ArticleDTO article;
+    private byte[] jsonRedisBytes;
+    private byte[] jsonBytes;
+    private byte[] smileBytes;
+    private byte[] cborBytes;
+
+    @Setup
+    public void setUp() {
+        RedisConfig redisConfig = new RedisConfig(new RedisProperties());
+        jsonRedisSerializer = redisConfig.jsonRedisSerializer();
+        jsonCodec = redisConfig.jsonCacheValueCodec();
+        smileCodec = redisConfig.smileCacheValueCodec();
+        cborCodec = redisConfig.cborCacheValueCodec();
+
+        article = ArticlePayloads.articleDTO(42, contentSize);
+        jsonRedisBytes = jsonRedisSerializer.serialize(article);
+        jsonBytes = jsonCodec.encode(article);
+        smileBytes = smileCodec.encode(article);
+        cborBytes = cborCodec.encode(article);
+    }
+
+    @Benchmark
+    public byte[] serializeJsonRedisSerializer() {
+        return jsonRedisSerializer.serialize(article);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonCodec.encode(article);
+    }
+
+    @Benchmark
+    public byte[] serializeSmile() {
+        return smileCodec.encode(article);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() {
+        return cborCodec.encode(article);
+    }
+
+    @Benchmark
+    public Object deserializeJsonRedisSerializer() {
+        return jsonRedisSerializer.deserialize(jsonRedisBytes);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonCodec.decode(jsonBytes, 0, jsonBytes.length);
+    }
+
+    @Benchmark
+    public Object deserializeSmile() {
+        return smileCodec.decode(smileBytes, 0, smileBytes.length);
+    }
+
+    @Benchmark
+    public Object deserializeCbor() {
+        return cborCodec.decode(cborBytes, 0, cborBytes.length);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import com.example.config.CacheConfig;
+import com.example.config.cache.CacheKeys;
+import com.example.config.properties.RedisProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis key building of {@link CacheKeys}, done for every programmatic cache operation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisKeyBenchmark {
+
+    private RedisProperties.Cache cacheProperties;
+
+    @Setup
+    public void setUp() {
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.getCache().setKeyPrefix("spring_redis:local");
+        cacheProperties = redisProperties.getCache();
+    }
+
+    @Benchmark
+    public String idKey() {
+        return CacheKeys.key(cacheProperties, CacheConfig.CacheNames.ARTICLE, "dto_42");
+    }
+
+    @Benchmark
+    public String pathKey() {
+        return CacheKeys.key(cacheProperties, CacheConfig.CacheNames.ARTICLE_BY_PATH, "dto_/articles/category-2/article-42");
+    }
+}
@@ -3,7 +3,11 @@ package com.example.common.controller;
 import com.example.common.criteria.BaseCriteria;
 import com.example.common.dto.BaseDTO;
 import com.example.common.exception.OperationNotSupportException;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.PageTotal;
+import com.example.common.pagination.TotalMode;
 import com.example.common.response.BaseResponse;
+import com.example.common.response.CursorResponse;
 import com.example.common.response.PaginatedResponse;
 import com.example.common.service.BaseService;
 import com.example.common.util.JsonUtils;
@@ -13,12 +17,14 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.OptionalLong;
 
 @Slf4j
 public abstract class BaseController<E extends BaseEntity, D extends BaseDTO, C extends BaseCriteria> {
@@ -37,6 +43,19 @@ public abstract class BaseController<E extends BaseEntity, D extends BaseDTO, C
         return ResponseEntity.ok(PaginatedResponse.of(page));
     }
 
+    @GetMapping("/search/slice")
+    public ResponseEntity<PaginatedResponse<D>> searchSlice(C criteria, Pageable pageable,
+                                                            @RequestParam(defaultValue = "NONE") TotalMode total) {
+        Slice<D> slice = getService().findSliceByCriteria(criteria, pageable);
+        return ResponseEntity.ok(PaginatedResponse.of(slice, getTotal(criteria, slice, total)));
+    }
+
+    @GetMapping("/search/seek")
+    public ResponseEntity<CursorResponse<D>> seek(C criteria, @RequestParam(required = false) String cursor, Pageable pageable) {
+        CursorPage<D> page = getService().findByCriteriaAfter(criteria, cursor, pageable);
+        return ResponseEntity.ok(CursorResponse.of(page));
+    }
+
     @GetMapping("/search/by-creator")
     public ResponseEntity<BaseResponse<List<D>>> findByCreator(@RequestParam String createdBy) {
         List<D> lstDto = getService().findByCreatedBy(createdBy);
@@ -104,4 +123,24 @@ public abstract class BaseController<E extends BaseEntity, D extends BaseDTO, C
         return ResponseEntity.noContent().build();
     }
 
+    private PageTotal getTotal(C criteria, Slice<D> slice, TotalMode mode) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+        // The last slice gives the exact total for free
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            return new PageTotal(seen, true);
+        }
+        return switch (mode) {
+            case NONE -> null;
+            case CACHED -> new PageTotal(getService().countByCriteria(criteria), false);
+            case ESTIMATED -> {
+                OptionalLong estimate = getService().estimateCountByCriteria(criteria);
+                // Statistics may lag behind, the total is at least the rows already seen
+                yield estimate.isPresent()
+                        ? new PageTotal(Math.max(estimate.getAsLong(), slice.hasNext() ? seen + 1 : seen), false)
+                        : new PageTotal(getService().countByCriteria(criteria), false);
+            }
+        };
+    }
 }
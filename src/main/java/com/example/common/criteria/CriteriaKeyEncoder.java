@@ -0,0 +1,418 @@
+package com.example.common.criteria;
+
+import com.example.tech.jhipster.service.Criteria;
+import com.example.tech.jhipster.service.filter.Filter;
+import com.example.tech.jhipster.service.filter.RangeFilter;
+import com.example.tech.jhipster.service.filter.StringFilter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Canonical cache key of search criteria.
+ * <p>
+ * Criteria are reduced to the predicates {@link com.example.tech.jhipster.service.QueryService} actually builds, so
+ * that equivalent criteria share a key:
+ * <ul>
+ *     <li>filters without any condition, and criteria without any filter, are left out ({@link #UNFILTERED})</li>
+ *     <li>conditions shadowed by a condition of higher precedence (e.g. {@code in} when {@code equals} is set) are
+ *     left out</li>
+ *     <li>{@code in} and {@code notIn} lists are sorted and deduplicated, a single-valued {@code in} is an
+ *     {@code equals}</li>
+ *     <li>{@code contains} and {@code doesNotContain}, matched in upper case, are upper-cased</li>
+ * </ul>
+ * The reduced form is streamed into SHA-256 through a per-thread buffer, and the key is the first 128 bits of the
+ * digest in URL-safe Base64 (22 characters). Unlike {@code hashCode()}, distinct criteria do not collide in practice,
+ * even when crafted by a client.
+ */
+public final class CriteriaKeyEncoder {
+
+    /**
+     * Key of null criteria and of criteria without any condition
+     */
+    public static final String UNFILTERED = "all";
+
+    private static final int BUFFER_SIZE = 512;
+    private static final int KEY_BYTES = 16;
+    private static final char[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    // Condition tags
+    private static final byte EQUALS = 1;
+    private static final byte IN = 2;
+    private static final byte NOT_IN = 3;
+    private static final byte NOT_EQUALS = 4;
+    private static final byte SPECIFIED = 5;
+    private static final byte CONTAINS = 6;
+    private static final byte DOES_NOT_CONTAIN = 7;
+    private static final byte GREATER_THAN = 8;
+    private static final byte GREATER_THAN_OR_EQUAL = 9;
+    private static final byte LESS_THAN = 10;
+    private static final byte LESS_THAN_OR_EQUAL = 11;
+
+    // Value tags
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGRAL = 2;
+    private static final byte FLOATING = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte ENUM = 6;
+    private static final byte INSTANT = 7;
+    private static final byte DATE = 8;
+    private static final byte DATE_TIME = 9;
+    private static final byte DURATION = 10;
+    private static final byte UUID_VALUE = 11;
+    private static final byte OTHER = 12;
+
+    private static final Comparator<Object> VALUE_ORDER = CriteriaKeyEncoder::compareValues;
+
+    private static final ThreadLocal<CriteriaKeyEncoder> ENCODERS = ThreadLocal.withInitial(CriteriaKeyEncoder::new);
+
+    // Filter fields of each criteria class, sorted by name
+    private static final ClassValue<Field[]> FILTER_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && Filter.class.isAssignableFrom(field.getType())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            fields.sort(Comparator.comparing(Field::getName));
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] hash;
+    private final char[] key = new char[(KEY_BYTES * 4 + 2) / 3];
+    private int position;
+
+    private CriteriaKeyEncoder() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.hash = new byte[digest.getDigestLength()];
+    }
+
+    /**
+     * @param criteria Search criteria, may be null
+     * @return Canonical key of the criteria, {@link #UNFILTERED} if they have no condition
+     */
+    public static String encode(Criteria criteria) {
+        if (criteria == null) {
+            return UNFILTERED;
+        }
+        return ENCODERS.get().doEncode(criteria);
+    }
+
+    /**
+     * @param criteria Search criteria, may be null
+     * @return Whether the criteria have no condition
+     */
+    public static boolean isUnfiltered(Criteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        for (Field field : FILTER_FIELDS.get(criteria.getClass())) {
+            if (hasCondition(readFilter(field, criteria))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String doEncode(Criteria criteria) {
+        digest.reset();
+        position = 0;
+        writeString(criteria.getClass().getName());
+
+        boolean filtered = false;
+        for (Field field : FILTER_FIELDS.get(criteria.getClass())) {
+            Filter<?> filter = readFilter(field, criteria);
+            if (hasCondition(filter)) {
+                writeString(field.getName());
+                writeFilter(filter);
+                filtered = true;
+            }
+        }
+        if (!filtered) {
+            return UNFILTERED;
+        }
+
+        flush();
+        try {
+            digest.digest(hash, 0, hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Could not digest criteria", e);
+        }
+        return toBase64Url();
+    }
+
+    private static Filter<?> readFilter(Field field, Criteria criteria) {
+        try {
+            return (Filter<?>) field.get(criteria);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read criteria field " + field.getName(), e);
+        }
+    }
+
+    private static boolean hasCondition(Filter<?> filter) {
+        if (filter == null) {
+            return false;
+        }
+        if (filter.getEquals() != null || filter.getIn() != null || filter.getNotIn() != null
+                || filter.getNotEquals() != null || filter.getSpecified() != null) {
+            return true;
+        }
+        if (filter instanceof StringFilter stringFilter) {
+            return stringFilter.getContains() != null || stringFilter.getDoesNotContain() != null;
+        }
+        if (filter instanceof RangeFilter<?> rangeFilter) {
+            return rangeFilter.getGreaterThan() != null || rangeFilter.getGreaterThanOrEqual() != null
+                    || rangeFilter.getLessThan() != null || rangeFilter.getLessThanOrEqual() != null;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the conditions in the precedence of the QueryService builders: the first condition set wins,
+     * except for range filters which combine every condition after equals and in
+     */
+    private void writeFilter(Filter<?> filter) {
+        Object equals = filter.getEquals();
+        List<?> in = filter.getIn();
+        if (equals == null && in != null && in.size() == 1 && in.get(0) != null) {
+            equals = in.get(0);
+        }
+        if (equals != null) {
+            writeCondition(EQUALS, equals);
+            return;
+        }
+        if (in != null) {
+            writeList(IN, in);
+            return;
+        }
+
+        if (filter instanceof RangeFilter<?> rangeFilter) {
+            writeConditionIfSet(SPECIFIED, rangeFilter.getSpecified());
+            writeConditionIfSet(NOT_EQUALS, rangeFilter.getNotEquals());
+            if (rangeFilter.getNotIn() != null) {
+                writeList(NOT_IN, rangeFilter.getNotIn());
+            }
+            writeConditionIfSet(GREATER_THAN, rangeFilter.getGreaterThan());
+            writeConditionIfSet(GREATER_THAN_OR_EQUAL, rangeFilter.getGreaterThanOrEqual());
+            writeConditionIfSet(LESS_THAN, rangeFilter.getLessThan());
+            writeConditionIfSet(LESS_THAN_OR_EQUAL, rangeFilter.getLessThanOrEqual());
+            return;
+        }
+
+        if (filter.getNotIn() != null) {
+            writeList(NOT_IN, filter.getNotIn());
+        } else if (filter instanceof StringFilter stringFilter && stringFilter.getContains() != null) {
+            // Same upper-casing as QueryService#wrapLikeQuery, which returns the same string when already upper case
+            writeCondition(CONTAINS, stringFilter.getContains().toUpperCase());
+        } else if (filter instanceof StringFilter stringFilter && stringFilter.getDoesNotContain() != null) {
+            writeCondition(DOES_NOT_CONTAIN, stringFilter.getDoesNotContain().toUpperCase());
+        } else if (filter.getNotEquals() != null) {
+            writeCondition(NOT_EQUALS, filter.getNotEquals());
+        } else {
+            writeCondition(SPECIFIED, filter.getSpecified());
+        }
+    }
+
+    private void writeConditionIfSet(byte condition, Object value) {
+        if (value != null) {
+            writeCondition(condition, value);
+        }
+    }
+
+    private void writeCondition(byte condition, Object value) {
+        writeByte(condition);
+        writeValue(value);
+    }
+
+    /**
+     * Writes the distinct values in ascending order, copying the list only when it is not sorted already
+     */
+    private void writeList(byte condition, List<?> values) {
+        writeByte(condition);
+        boolean sortedDistinct = true;
+        for (int i = 1; i < values.size() && sortedDistinct; i++) {
+            sortedDistinct = compareValues(values.get(i - 1), values.get(i)) < 0;
+        }
+        if (sortedDistinct) {
+            writeInt(values.size());
+            for (Object value : values) {
+                writeValue(value);
+            }
+            return;
+        }
+
+        Object[] sorted = values.toArray();
+        Arrays.sort(sorted, VALUE_ORDER);
+        int distinct = sorted.length == 0 ? 0 : 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (compareValues(sorted[i - 1], sorted[i]) != 0) {
+                distinct++;
+            }
+        }
+        writeInt(distinct);
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || compareValues(sorted[i - 1], sorted[i]) != 0) {
+                writeValue(sorted[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left == null || right == null) {
+            return left == null ? -1 : 1;
+        }
+        if (left.getClass() == right.getClass() && left instanceof Comparable comparable) {
+            return comparable.compareTo(right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+
+    private void writeValue(Object value) {
+        switch (value) {
+            case null -> writeByte(NULL);
+            case String string -> {
+                writeByte(STRING);
+                writeString(string);
+            }
+            case Long number -> writeTagged(INTEGRAL, number);
+            case Integer number -> writeTagged(INTEGRAL, number);
+            case Short number -> writeTagged(INTEGRAL, number);
+            case Byte number -> writeTagged(INTEGRAL, number);
+            case Double number -> writeTagged(FLOATING, Double.doubleToLongBits(number));
+            case Float number -> writeTagged(FLOATING, Double.doubleToLongBits(number));
+            case BigDecimal number -> {
+                // 1.0 and 1.00 compare equal in SQL
+                writeByte(DECIMAL);
+                writeString(number.signum() == 0 ? "0" : number.stripTrailingZeros().toString());
+            }
+            case Boolean bool -> {
+                writeByte(BOOLEAN);
+                writeByte((byte) (bool ? 1 : 0));
+            }
+            case Enum<?> constant -> {
+                writeByte(ENUM);
+                writeString(constant.name());
+            }
+            case Instant instant -> {
+                writeTagged(INSTANT, instant.getEpochSecond());
+                writeInt(instant.getNano());
+            }
+            case ZonedDateTime dateTime -> {
+                writeTagged(INSTANT, dateTime.toEpochSecond());
+                writeInt(dateTime.getNano());
+            }
+            case LocalDate date -> writeTagged(DATE, date.toEpochDay());
+            case LocalDateTime dateTime -> {
+                writeTagged(DATE_TIME, dateTime.toLocalDate().toEpochDay());
+                writeLong(dateTime.toLocalTime().toNanoOfDay());
+            }
+            case Duration duration -> {
+                writeTagged(DURATION, duration.getSeconds());
+                writeInt(duration.getNano());
+            }
+            case UUID uuid -> {
+                writeTagged(UUID_VALUE, uuid.getMostSignificantBits());
+                writeLong(uuid.getLeastSignificantBits());
+            }
+            default -> {
+                writeByte(OTHER);
+                writeString(value.getClass().getName());
+                writeString(value.toString());
+            }
+        }
+    }
+
+    private void writeTagged(byte tag, long value) {
+        writeByte(tag);
+        writeLong(value);
+    }
+
+    // Length-prefixed UTF-16, so that no string is a prefix of the encoding of another
+    private void writeString(String value) {
+        int length = value.length();
+        writeInt(length);
+        for (int i = 0; i < length; i++) {
+            ensureCapacity(2);
+            char c = value.charAt(i);
+            buffer[position++] = (byte) (c >>> 8);
+            buffer[position++] = (byte) c;
+        }
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        digest.update(buffer, 0, position);
+        position = 0;
+    }
+
+    private String toBase64Url() {
+        int out = 0;
+        for (int i = 0; i < KEY_BYTES; i += 3) {
+            int remaining = Math.min(3, KEY_BYTES - i);
+            int bits = (hash[i] & 0xff) << 16
+                    | (remaining > 1 ? (hash[i + 1] & 0xff) << 8 : 0)
+                    | (remaining > 2 ? hash[i + 2] & 0xff : 0);
+            for (int j = 0; j <= remaining; j++) {
+                key[out++] = BASE64_URL[(bits >>> (18 - 6 * j)) & 0x3f];
+            }
+        }
+        return new String(key, 0, out);
+    }
+}
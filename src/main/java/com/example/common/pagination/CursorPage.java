@@ -0,0 +1,17 @@
+package com.example.common.pagination;
+
+import java.util.List;
+
+/**
+ * Page of a keyset (seek) search
+ *
+ * @param content    Rows of the page
+ * @param nextCursor Cursor of the next page, null on the last page
+ * @param size       Requested page size
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, int size) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
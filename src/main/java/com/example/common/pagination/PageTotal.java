@@ -0,0 +1,10 @@
+package com.example.common.pagination;
+
+/**
+ * Total number of rows matching a search
+ *
+ * @param count Number of rows
+ * @param exact Whether the count is exact, rather than cached for a while or estimated
+ */
+public record PageTotal(long count, boolean exact) {
+}
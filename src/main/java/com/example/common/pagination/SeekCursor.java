@@ -0,0 +1,41 @@
+package com.example.common.pagination;
+
+import com.example.common.exception.RequestValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset (seek) page: the sort key and id of the last row returned, with the order they were read in.
+ * <p>
+ * Clients get it as an opaque URL-safe token and send it back unchanged to read the next page.
+ *
+ * @param property  Sorted property
+ * @param direction Sort direction, also applied to the id tie-breaker
+ * @param value     Sort key of the last row, in its {@code toString} form
+ * @param id        Id of the last row
+ */
+public record SeekCursor(String property, Sort.Direction direction, String value, long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public String encode() {
+        // The value goes last, so that it may contain the separator
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SeekCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected 4 parts, got " + parts.length);
+            }
+            return new SeekCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new RequestValidationException("INVALID_CURSOR", "Invalid cursor: " + token);
+        }
+    }
+}
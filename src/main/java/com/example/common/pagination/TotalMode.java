@@ -0,0 +1,19 @@
+package com.example.common.pagination;
+
+/**
+ * How the total of a slice search is obtained
+ */
+public enum TotalMode {
+    /**
+     * No total, unless the slice is the last one
+     */
+    NONE,
+    /**
+     * Count served from a short-TTL cache keyed by the criteria
+     */
+    CACHED,
+    /**
+     * Row estimate of the database statistics for unfiltered searches, otherwise the cached count
+     */
+    ESTIMATED
+}
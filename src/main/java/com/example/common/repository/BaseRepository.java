@@ -1,12 +1,16 @@
 package com.example.common.repository;
 
 import com.example.entity.BaseEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.OptionalLong;
 
 @NoRepositoryBean
 public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, Long>, JpaSpecificationExecutor<T> {
@@ -26,4 +30,9 @@ public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, L
 
     List<T> findByLastModifiedByAndLastModifiedAtBetween(String lastModifiedBy, Instant start, Instant end);
 
+    // Implemented by BaseRepositoryImpl
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    OptionalLong estimateCount();
+
 }
@@ -0,0 +1,81 @@
+package com.example.common.repository;
+
+import com.example.entity.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Base class of the application repositories, implementing the queries {@link BaseRepository} adds to Spring Data
+ */
+@Slf4j
+public class BaseRepositoryImpl<T extends BaseEntity> extends SimpleJpaRepository<T, Long> {
+
+    private static final String TABLE_ROWS_QUERY =
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table";
+
+    private final EntityManager entityManager;
+    private final String tableName;
+    private final boolean tableRowsSupported;
+
+    public BaseRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+
+        Table table = entityInformation.getJavaType().getAnnotation(Table.class);
+        this.tableName = table != null && !table.name().isEmpty() ? table.name() : entityInformation.getEntityName();
+        // Checked up front: a failing native query would mark the surrounding transaction rollback-only
+        this.tableRowsSupported = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof MySQLDialect;
+    }
+
+    /**
+     * Reads size + 1 rows to tell whether there is a next page, instead of running a count query
+     */
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<T> content = findAll(spec);
+            return new SliceImpl<>(content, pageable, false);
+        }
+
+        TypedQuery<T> query = getQuery(spec, pageable.getSort());
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Row count estimate kept by the database statistics, without scanning the table.
+     * Only MySQL (and MariaDB) statistics are read, other databases give no estimate.
+     */
+    public OptionalLong estimateCount() {
+        if (!tableRowsSupported) {
+            return OptionalLong.empty();
+        }
+        List<?> rows = entityManager.createNativeQuery(TABLE_ROWS_QUERY)
+                .setParameter("table", tableName)
+                .getResultList();
+        if (rows.isEmpty() || !(rows.get(0) instanceof Number estimate)) {
+            log.debug("No row estimate for table {}", tableName);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(estimate.longValue());
+    }
+}
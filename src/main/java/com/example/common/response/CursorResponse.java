@@ -0,0 +1,24 @@
+package com.example.common.response;
+
+import com.example.common.pagination.CursorPage;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CursorResponse<T> extends BaseResponse<List<T>> {
+    private int pageSize;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <T> CursorResponse<T> of(CursorPage<T> page) {
+        CursorResponse<T> response = new CursorResponse<>();
+        response.setData(page.content());
+        response.setPageSize(page.size());
+        response.setHasNext(page.hasNext());
+        response.setNextCursor(page.nextCursor());
+        return response;
+    }
+}
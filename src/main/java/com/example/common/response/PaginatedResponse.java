@@ -1,16 +1,20 @@
 package com.example.common.response;
 
+import com.example.common.pagination.PageTotal;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 @Getter
 @Setter
 public class PaginatedResponse<T> extends BaseResponse<List<T>> {
-    private long totalElements;
-    private int totalPages;
+    // Null when the total is unknown
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean totalExact;
     private int currentPage;
     private int pageSize;
     private boolean hasNext;
@@ -21,10 +25,29 @@ public class PaginatedResponse<T> extends BaseResponse<List<T>> {
         response.setData(page.getContent());
         response.setTotalElements(page.getTotalElements());
         response.setTotalPages(page.getTotalPages());
+        response.setTotalExact(true);
         response.setCurrentPage(page.getNumber());
         response.setPageSize(page.getSize());
         response.setHasNext(page.hasNext());
         response.setHasPrevious(page.hasPrevious());
         return response;
     }
+
+    /**
+     * @param total Total of the search, or null if unknown
+     */
+    public static <T> PaginatedResponse<T> of(Slice<T> slice, PageTotal total) {
+        PaginatedResponse<T> response = new PaginatedResponse<>();
+        response.setData(slice.getContent());
+        if (total != null) {
+            response.setTotalElements(total.count());
+            response.setTotalPages(slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total.count() / slice.getSize()));
+            response.setTotalExact(total.exact());
+        }
+        response.setCurrentPage(slice.getNumber());
+        response.setPageSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        response.setHasPrevious(slice.hasPrevious());
+        return response;
+    }
 }
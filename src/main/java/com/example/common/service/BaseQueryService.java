@@ -1,11 +1,22 @@
 package com.example.common.service;
 
 import com.example.common.criteria.BaseCriteria;
+import com.example.common.exception.RequestValidationException;
+import com.example.common.pagination.SeekCursor;
 import com.example.entity.BaseEntity;
 import com.example.entity.BaseEntity_;
 import com.example.tech.jhipster.service.QueryService;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
 public abstract class BaseQueryService<E extends BaseEntity, C extends BaseCriteria> extends QueryService<E> {
 
     public Specification<E> createSpecification(C criteria) {
@@ -40,4 +51,56 @@ public abstract class BaseQueryService<E extends BaseEntity, C extends BaseCrite
 
     protected abstract Specification<E> doCreateSpecification(C criteria);
 
+    /**
+     * Seek predicate selecting the rows after a cursor, in the cursor order: a greater (or lower, when descending)
+     * sort key, or the same sort key and a greater (or lower) id.
+     * Unlike an offset, the predicate is resolved through an index on (sort key, id), whatever the page depth.
+     *
+     * @param cursor Position of the last row returned
+     * @return a Specification
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Specification<E> createSeekSpecification(SeekCursor cursor) {
+        return (root, query, cb) -> {
+            boolean ascending = cursor.direction().isAscending();
+            Path<Long> id = root.get(BaseEntity_.id);
+            Predicate idAfter = after(cb, id, cursor.id(), ascending);
+            if (BaseEntity_.ID.equals(cursor.property())) {
+                return idAfter;
+            }
+            Path key = root.get(cursor.property());
+            Comparable value = parseSortValue(cursor.value(), key.getJavaType());
+            return cb.or(after(cb, key, value, ascending), cb.and(cb.equal(key, value), idAfter));
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<? extends Y> key,
+                                                                    Y value, boolean ascending) {
+        return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<?> parseSortValue(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            } else if (type == Instant.class) {
+                return Instant.parse(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RequestValidationException("INVALID_CURSOR", "Invalid cursor value: " + value);
+        }
+        throw new RequestValidationException("INVALID_CURSOR", "Cannot seek on a property of type " + type.getSimpleName());
+    }
+
 }
@@ -2,14 +2,17 @@ package com.example.common.service;
 
 import com.example.common.criteria.BaseCriteria;
 import com.example.common.dto.BaseDTO;
+import com.example.common.pagination.CursorPage;
 import com.example.entity.BaseEntity;
 import com.example.model.dto.PartialUpdateDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 
 public interface BaseService<E extends BaseEntity, D extends BaseDTO, C extends BaseCriteria> {
     D findById(Long id);
@@ -34,6 +37,42 @@ public interface BaseService<E extends BaseEntity, D extends BaseDTO, C extends
 
     Page<D> findByCriteria(C criteria, Pageable pageable);
 
+    /**
+     * Search without a count query: reads one row more than the page size to tell whether there is a next page.
+     *
+     * @param criteria Search criteria
+     * @param pageable Page request
+     * @return Slice of the results
+     */
+    Slice<D> findSliceByCriteria(C criteria, Pageable pageable);
+
+    /**
+     * Count the rows matching the criteria. Override this method to cache the count for a short time.
+     *
+     * @param criteria Search criteria
+     * @return Number of matching rows
+     */
+    long countByCriteria(C criteria);
+
+    /**
+     * Approximate number of rows matching the criteria, from the database statistics.
+     *
+     * @param criteria Search criteria
+     * @return Estimate, or empty if the database gives none for these criteria
+     */
+    OptionalLong estimateCountByCriteria(C criteria);
+
+    /**
+     * Keyset (seek) search: reads the page after a cursor instead of skipping an offset, and runs no count query,
+     * so that every page costs the same as the first one.
+     *
+     * @param criteria Search criteria
+     * @param cursor   Cursor returned with the previous page, or null for the first page
+     * @param pageable Page size, and the sort of the first page; the page number is ignored
+     * @return Page with the cursor of the next one
+     */
+    CursorPage<D> findByCriteriaAfter(C criteria, String cursor, Pageable pageable);
+
     /**
      * Validate DTO before creation. Override this method to add custom validation logic.
      *
@@ -2,21 +2,31 @@ package com.example.common.service;
 
 import com.example.common.annotation.PartialUpdateable;
 import com.example.common.criteria.BaseCriteria;
+import com.example.common.criteria.CriteriaKeyEncoder;
 import com.example.common.dto.BaseDTO;
 import com.example.common.exception.BusinessProcessingException;
 import com.example.common.exception.BusinessValidationException;
 import com.example.common.exception.OptimisticLockException;
+import com.example.common.exception.RequestValidationException;
 import com.example.common.exception.ResourceNotFoundException;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.SeekCursor;
 import com.example.common.repository.BaseRepository;
 import com.example.common.util.JsonUtils;
 import com.example.common.validator.FieldValidator;
 import com.example.entity.BaseEntity;
+import com.example.entity.BaseEntity_;
 import com.example.model.dto.PartialUpdateDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.StaleObjectStateException;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -35,6 +45,8 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -63,6 +75,27 @@ public abstract class BaseServiceImpl<E extends BaseEntity, D extends BaseDTO, C
 
     protected abstract D toDTO(E entity);
 
+    /**
+     * Convert the entities of a list. Override this method to load what the DTOs need once for the whole list
+     * instead of once per entity.
+     *
+     * @param entities Entities to convert
+     * @return DTOs, in the order of the entities
+     */
+    protected List<D> toDTOs(List<E> entities) {
+        return entities.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Properties a keyset search may be sorted by. They must be non-null, and indexed together with the id.
+     * Override this method to allow more properties.
+     *
+     * @return Sortable property names
+     */
+    protected Set<String> getSeekSortProperties() {
+        return Set.of(BaseEntity_.ID, BaseEntity_.CREATED_AT);
+    }
+
     /**
      * Get field validators for partial updates.
      * Override this method to provide field-specific validators.
@@ -409,34 +442,106 @@ public abstract class BaseServiceImpl<E extends BaseEntity, D extends BaseDTO, C
 
     @Override
     public List<D> findByCreatedBy(String createdBy) {
-        return getRepository()
-                .findByCreatedBy(createdBy)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(getRepository().findByCreatedBy(createdBy));
     }
 
     @Override
     public List<D> findByCriteria(C criteria) {
         log.debug("find list by criteria : {}", criteria);
         Specification<E> spec = getQueryService().createSpecification(criteria);
-        return getRepository().findAll(spec).stream().map(this::toDTO).toList();
+        return toDTOs(getRepository().findAll(spec));
     }
 
     @Override
     public List<D> findByDateRange(Instant start, Instant end) {
-        return getRepository()
-                .findByCreatedAtBetween(start, end)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(getRepository().findByCreatedAtBetween(start, end));
     }
 
     @Override
     public Page<D> findByCriteria(C criteria, Pageable pageable) {
         log.debug("find paginated list by criteria : {}", JsonUtils.toJson(criteria));
         Specification<E> spec = getQueryService().createSpecification(criteria);
-        return getRepository().findAll(spec, pageable).map(this::toDTO);
+        Page<E> page = getRepository().findAll(spec, pageable);
+        return new PageImpl<>(toDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Load the DTOs of the given ids, in any order; missing ids are skipped
+     */
+    protected List<D> findAllByIds(List<Long> ids) {
+        return toDTOs(getRepository().findAllById(ids));
+    }
+
+    @Override
+    public Slice<D> findSliceByCriteria(C criteria, Pageable pageable) {
+        log.debug("find slice by criteria : {}", JsonUtils.toJson(criteria));
+        Specification<E> spec = getQueryService().createSpecification(criteria);
+        Slice<E> slice = getRepository().findSlice(spec, pageable);
+        return new SliceImpl<>(toDTOs(slice.getContent()), slice.getPageable(), slice.hasNext());
+    }
+
+    @Override
+    public long countByCriteria(C criteria) {
+        Specification<E> spec = getQueryService().createSpecification(criteria);
+        return getRepository().count(spec);
+    }
+
+    @Override
+    public OptionalLong estimateCountByCriteria(C criteria) {
+        // Table statistics only describe unfiltered searches
+        return CriteriaKeyEncoder.isUnfiltered(criteria) ? getRepository().estimateCount() : OptionalLong.empty();
+    }
+
+    @Override
+    public CursorPage<D> findByCriteriaAfter(C criteria, String cursor, Pageable pageable) {
+        log.debug("find keyset page by criteria : {}, after : {}", JsonUtils.toJson(criteria), cursor);
+        SeekCursor after = cursor == null || cursor.isBlank() ? null : SeekCursor.decode(cursor);
+        // The cursor carries the sort it was read in, which takes precedence over the requested one
+        Sort.Order order = after != null
+                ? new Sort.Order(after.direction(), after.property())
+                : getSeekOrder(pageable.getSort());
+        if (!getSeekSortProperties().contains(order.getProperty())) {
+            throw new RequestValidationException(after != null ? "INVALID_CURSOR" : "INVALID_SORT",
+                    "Cannot seek by property: " + order.getProperty());
+        }
+        Sort sort = BaseEntity_.ID.equals(order.getProperty())
+                ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), BaseEntity_.ID));
+        int size = pageable.isPaged() ? pageable.getPageSize() : 20;
+
+        Specification<E> spec = getQueryService().createSpecification(criteria);
+        if (after != null) {
+            spec = spec.and(getQueryService().createSeekSpecification(after));
+        }
+        // One extra row tells whether there is a next page
+        List<E> rows = getRepository().findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            E last = rows.get(size - 1);
+            Object value = new BeanWrapperImpl(last).getPropertyValue(order.getProperty());
+            nextCursor = new SeekCursor(order.getProperty(), order.getDirection(), String.valueOf(value), last.getId())
+                    .encode();
+        }
+        return new CursorPage<>(toDTOs(rows), nextCursor, size);
+    }
+
+    /**
+     * The single sort order of a keyset search, ignoring a trailing id order; newest first by default
+     */
+    private Sort.Order getSeekOrder(Sort sort) {
+        List<Sort.Order> orders = sort.stream()
+                .filter(order -> !BaseEntity_.ID.equals(order.getProperty()))
+                .toList();
+        if (orders.size() > 1) {
+            throw new RequestValidationException("INVALID_SORT", "Keyset search supports a single sort property, got: " + sort);
+        }
+        if (!orders.isEmpty()) {
+            return orders.get(0);
+        }
+        Sort.Order byId = sort.getOrderFor(BaseEntity_.ID);
+        return byId != null ? byId : Sort.Order.desc(BaseEntity_.ID);
     }
 
     @Override
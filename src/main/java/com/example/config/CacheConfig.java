@@ -1,24 +1,72 @@
 package com.example.config;
 
+import com.example.config.cache.CacheCardinalityTracker;
+import com.example.config.cache.CacheDecorator;
+import com.example.config.cache.CacheInvalidationBroadcaster;
+import com.example.config.cache.CacheKeys;
+import com.example.config.cache.CacheMetrics;
+import com.example.config.cache.CacheValueCodec;
+import com.example.config.cache.CardinalityTrackingCache;
+import com.example.config.cache.CodecRedisSerializer;
+import com.example.config.cache.CompressingRedisSerializer;
+import com.example.config.cache.DeflateValueCompressor;
+import com.example.config.cache.CoalescingCache;
+import com.example.config.cache.DelegatingCache;
+import com.example.config.cache.GenerationalCache;
+import com.example.config.cache.HotKeyTracker;
+import com.example.config.cache.HotKeyTrackingCache;
+import com.example.config.cache.HotKeysEndpoint;
+import com.example.config.cache.InstrumentedCache;
+import com.example.config.cache.LayeredCacheManager;
+import com.example.config.cache.LeasedCache;
+import com.example.config.cache.Lz4ValueCompressor;
+import com.example.config.cache.RedisKeyScanner;
+import com.example.config.cache.RedisTimingCache;
+import com.example.config.cache.ReloadingCacheResolver;
+import com.example.config.cache.RefreshingCache;
+import com.example.config.cache.ScanBatchStrategy;
+import com.example.config.cache.TwoTierCache;
+import com.example.config.cache.ValueCompressor;
 import com.example.config.properties.RedisProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Cache manager and cache name definitions
@@ -28,10 +76,15 @@ import java.util.Map;
 @EnableCaching
 @RequiredArgsConstructor
 @ConditionalOnProperty(prefix = "application.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
     private final RedisProperties redisProperties;
     private final GenericJackson2JsonRedisSerializer jsonRedisSerializer;
+    private final List<CacheValueCodec> cacheValueCodecs;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    private final List<ValueCompressor> valueCompressors = List.of(new DeflateValueCompressor(), new Lz4ValueCompressor());
 
     /**
      * Cache names for different entities
@@ -41,20 +94,39 @@ public class CacheConfig {
         public static final String CATEGORY = "category";
         public static final String CATEGORY_BY_NAME = "category_by_name";
         public static final String CATEGORY_BY_PATH = "category_by_path";
+        public static final String CATEGORY_COUNT = "category_count";
+        public static final String CATEGORY_PAGE = "category_page";
 
         public static final String ALL_ARTICLES = "all_articles";
         public static final String ARTICLE = "article";
         public static final String ARTICLE_BY_NAME = "article_by_name";
         public static final String ARTICLE_BY_PATH = "article_by_path";
+        public static final String ARTICLE_COUNT = "article_count";
+        public static final String ARTICLE_PAGE = "article_page";
+
+        // Hibernate second-level cache regions
+        public static final String CATEGORY_ENTITY = "category_entity";
+        public static final String CATEGORY_ARTICLES = "category_articles";
+        public static final String ARTICLE_ENTITY = "article_entity";
+    }
+
+    /**
+     * Resolves the caching annotations against the primary cache manager, capturing the invoked method so that
+     * background refreshes can call it again
+     */
+    @Override
+    public CacheResolver cacheResolver() {
+        return new ReloadingCacheResolver(cacheManagerProvider);
     }
 
     @Bean
-    @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, RedisKeyScanner redisKeyScanner) {
+        // Cache clears delete keys in SCAN batches instead of blocking Redis with KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                new ScanBatchStrategy(redisKeyScanner));
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(createDefaultCacheConfiguration())
-                .withInitialCacheConfigurations(createCacheConfigurations())
-                .transactionAware();
+                .withInitialCacheConfigurations(createCacheConfigurations());
 
         RedisCacheManager cacheManager = builder.build();
         log.info("Redis cache manager initialized with {} cache configurations", createCacheConfigurations().size());
@@ -62,16 +134,265 @@ public class CacheConfig {
         return cacheManager;
     }
 
+    /**
+     * Composite cache manager used by the caching annotations: Redis caches wrapped with the configured
+     * decorator layers, made transaction-aware as a whole so that puts and evictions of every tier happen
+     * after commit.
+     */
+    @Bean
+    @Primary
+    public CacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                     RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBroadcaster invalidationBroadcaster,
+                                     CacheCardinalityTracker cardinalityTracker,
+                                     ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                     ThreadPoolTaskScheduler cacheHotKeyScheduler,
+                                     PlatformTransactionManager transactionManager) {
+        TransactionTemplate refreshTransaction = new TransactionTemplate(transactionManager);
+        refreshTransaction.setReadOnly(true);
+
+        // Shared by the Redis timing, refreshing and outermost instrumented layers of each cache
+        Map<String, CacheMetrics> cacheMetrics = new ConcurrentHashMap<>();
+
+        List<CacheDecorator> decorators = new ArrayList<>();
+        decorators.add(cache -> new RedisTimingCache(cache, getCacheMetrics(cacheMetrics, cache.getName())));
+        decorators.add(cache -> createLeasedCache(cache, connectionFactory));
+        decorators.add(cache -> new CardinalityTrackingCache(cache, cardinalityTracker));
+        if (redisProperties.getCache().isCoalesceLoads()) {
+            decorators.add(CoalescingCache::new);
+        }
+        decorators.add(cache -> createRefreshingCache(cache, connectionFactory, cacheRefreshExecutor, refreshTransaction,
+                getCacheMetrics(cacheMetrics, cache.getName())));
+        if (redisProperties.getCache().getLocal().isEnabled()) {
+            decorators.add(cache -> createTwoTierCache(cache, invalidationBroadcaster));
+        }
+        decorators.add(cache -> createGenerationalCache(cache, connectionFactory, invalidationBroadcaster));
+        if (redisProperties.getCache().getHotKeys().isEnabled()) {
+            decorators.add(cache -> createHotKeyTrackingCache(cache, cacheHotKeyScheduler));
+        }
+        decorators.add(cache -> new InstrumentedCache(cache, getCacheMetrics(cacheMetrics, cache.getName())));
+
+        log.info("Layered cache manager initialized with {} decorator layer(s)", decorators.size());
+        return new TransactionAwareCacheManagerProxy(new LayeredCacheManager(redisCacheManager, decorators));
+    }
+
+    /**
+     * Bounded executor for background cache refreshes, saturation skips refreshes rather than blocking readers
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(redisProperties.getCache().getRefreshThreads());
+        executor.setMaxPoolSize(redisProperties.getCache().getRefreshThreads());
+        executor.setQueueCapacity(redisProperties.getCache().getRefreshQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        return executor;
+    }
+
+    /**
+     * Single thread draining the hot key samples of every cache
+     */
+    @Bean
+    public ThreadPoolTaskScheduler cacheHotKeyScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("cache-hotkeys-");
+        return scheduler;
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(CacheManager cacheManager) {
+        return new HotKeysEndpoint(cacheManager, redisProperties.getCache().getHotKeys().getTopK());
+    }
+
+    @Bean
+    public RedisKeyScanner redisKeyScanner() {
+        return new RedisKeyScanner(redisProperties.getCache().getBatchSize());
+    }
+
+    /**
+     * Single thread flushing the keys tracked for the cache size estimates
+     */
+    @Bean
+    public ThreadPoolTaskScheduler cacheSizeEstimateScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("cache-size-");
+        return scheduler;
+    }
+
+    @Bean
+    public CacheCardinalityTracker cacheCardinalityTracker(RedisConnectionFactory connectionFactory,
+                                                           ThreadPoolTaskScheduler cacheSizeEstimateScheduler) {
+        RedisProperties.Cache cacheProperties = redisProperties.getCache();
+        CacheCardinalityTracker tracker = new CacheCardinalityTracker(connectionFactory,
+                cacheProperties.getKeyPrefix() +
+                        cacheProperties.getKeySeparator() +
+                        cacheProperties.getSizeEstimateKey() +
+                        cacheProperties.getKeySeparator(),
+                cacheProperties.getKeySeparator(), this::getCacheTtl, cacheProperties.getSizeEstimateBufferSize());
+        cacheSizeEstimateScheduler.scheduleWithFixedDelay(tracker::flush, cacheProperties.getSizeEstimateFlushInterval());
+
+        FunctionCounter.builder("cache.size.dropped", tracker, CacheCardinalityTracker::getDroppedKeys)
+                .description("Written keys dropped before being added to the cache size estimates")
+                .register(meterRegistry);
+        return tracker;
+    }
+
+    @Bean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster(RedisConnectionFactory connectionFactory) {
+        return new CacheInvalidationBroadcaster(connectionFactory, getInvalidationChannel());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBroadcaster invalidationBroadcaster) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBroadcaster, new ChannelTopic(getInvalidationChannel()));
+        return container;
+    }
+
+    private Cache createTwoTierCache(Cache cache, CacheInvalidationBroadcaster invalidationBroadcaster) {
+        RedisProperties.EntityCacheConfig entityConfig = getEntityCacheConfig(cache.getName());
+        if (entityConfig == null) {
+            return cache;
+        }
+
+        TwoTierCache twoTierCache = new TwoTierCache(cache, entityConfig.getLocalTtl(), entityConfig.getMaxSize(), invalidationBroadcaster);
+        invalidationBroadcaster.register(twoTierCache);
+        return twoTierCache;
+    }
+
+    private Cache createLeasedCache(Cache cache, RedisConnectionFactory connectionFactory) {
+        RedisProperties.Lease lease = redisProperties.getCache().getCacheSpec(cache.getName()).getLease();
+        RedisCache redisCache = DelegatingCache.unwrap(cache, RedisCache.class);
+        if (!lease.isEnabled() || redisCache == null) {
+            return cache;
+        }
+        return new LeasedCache(cache, redisCache.getCacheConfiguration(), connectionFactory,
+                lease.getTtl(), lease.getWaitTimeout(), lease.getPollInterval());
+    }
+
+    private Cache createHotKeyTrackingCache(Cache cache, ThreadPoolTaskScheduler scheduler) {
+        RedisProperties.HotKeys hotKeys = redisProperties.getCache().getHotKeys();
+        // List cache keys are namespaced by generation below this layer, their slot is the one of the current generation
+        RedisCache redisCache = DelegatingCache.unwrap(cache, RedisCache.class);
+        GenerationalCache generationalCache = DelegatingCache.unwrap(cache, GenerationalCache.class);
+        Function<Object, String> redisKeys = null;
+        if (redisCache != null) {
+            String redisKeyPrefix = redisCache.getCacheConfiguration().getKeyPrefixFor(cache.getName());
+            redisKeys = generationalCache != null
+                    ? key -> redisKeyPrefix + generationalCache.toStoredKey(key)
+                    : key -> redisKeyPrefix + key;
+        }
+
+        HotKeyTracker tracker = new HotKeyTracker(cache.getName(), redisKeys, hotKeys.getSamplingRatio(),
+                hotKeys.getTopK(), hotKeys.getWindow(), hotKeys.getSketchWidth(), hotKeys.getSketchDepth(),
+                hotKeys.getBufferSize());
+        scheduler.scheduleWithFixedDelay(tracker::drain, hotKeys.getDrainInterval());
+
+        Gauge.builder("cache.hotkeys.top.share", tracker, HotKeyTracker::getTopShare)
+                .description("Share of the sampled reads going to the hottest key")
+                .tags("cache", cache.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.hotkeys.dropped", tracker, HotKeyTracker::getDroppedSamples)
+                .description("Sampled reads dropped before being counted")
+                .tags("cache", cache.getName())
+                .register(meterRegistry);
+        return new HotKeyTrackingCache(cache, tracker);
+    }
+
+    private CacheMetrics getCacheMetrics(Map<String, CacheMetrics> cacheMetrics, String cacheName) {
+        return cacheMetrics.computeIfAbsent(cacheName, name -> new CacheMetrics(name, meterRegistry));
+    }
+
+    private Cache createRefreshingCache(Cache cache, RedisConnectionFactory connectionFactory,
+                                        ThreadPoolTaskExecutor executor, TransactionTemplate transactionTemplate,
+                                        CacheMetrics metrics) {
+        RedisCache redisCache = DelegatingCache.unwrap(cache, RedisCache.class);
+        if (redisCache == null) {
+            return cache;
+        }
+
+        RedisProperties.CacheSpec spec = redisProperties.getCache().getCacheSpec(cache.getName());
+        Duration hardTtl = getCacheTtl(cache.getName());
+        Duration softTtl = spec.getSoftTtl();
+        if (softTtl != null && softTtl.compareTo(hardTtl) >= 0) {
+            log.warn("Soft TTL {} of cache '{}' is not shorter than its TTL {}, stale values will never be served",
+                    softTtl, cache.getName(), hardTtl);
+        }
+
+        boolean enabled = spec.getEarlyRefresh().isEnabled() || softTtl != null;
+        double beta = spec.getEarlyRefresh().isEnabled() ? spec.getEarlyRefresh().getBeta() : 0;
+        return new RefreshingCache(cache, enabled, softTtl != null ? softTtl : hardTtl, beta, executor, transactionTemplate, redisCache.getCacheConfiguration(), connectionFactory, metrics);
+    }
+
+    /**
+     * List and page caches are cleared on every write of their entity, so they are namespaced by a generation number
+     * and cleared with a single INCR
+     */
+    private Cache createGenerationalCache(Cache cache, RedisConnectionFactory connectionFactory,
+                                          CacheInvalidationBroadcaster invalidationBroadcaster) {
+        if (!isListCache(cache.getName())) {
+            return cache;
+        }
+
+        String generationKey = redisProperties.getCache().getKeyPrefix() +
+                redisProperties.getCache().getKeySeparator() +
+                redisProperties.getCache().getGenerationKey() +
+                redisProperties.getCache().getKeySeparator() +
+                cache.getName();
+        GenerationalCache generationalCache = new GenerationalCache(cache, connectionFactory, generationKey,
+                redisProperties.getCache().getGenerationLocalTtl(), invalidationBroadcaster);
+        invalidationBroadcaster.register(generationalCache);
+        return generationalCache;
+    }
+
+    private static boolean isListCache(String cacheName) {
+        return switch (cacheName) {
+            case CacheNames.ALL_CATEGORIES, CacheNames.CATEGORY_PAGE, CacheNames.ALL_ARTICLES, CacheNames.ARTICLE_PAGE -> true;
+            default -> false;
+        };
+    }
+
+    private String getInvalidationChannel() {
+        return redisProperties.getCache().getKeyPrefix() +
+                redisProperties.getCache().getKeySeparator() +
+                redisProperties.getCache().getLocal().getInvalidationChannel();
+    }
+
+    private Duration getCacheTtl(String cacheName) {
+        return switch (cacheName) {
+            case CacheNames.CATEGORY_COUNT -> redisProperties.getCache().getEntities().getCategory().getCountTtl();
+            case CacheNames.ARTICLE_COUNT -> redisProperties.getCache().getEntities().getArticle().getCountTtl();
+            default -> {
+                RedisProperties.EntityCacheConfig entityConfig = getEntityCacheConfig(cacheName);
+                yield entityConfig != null ? entityConfig.getTtl() : redisProperties.getCache().getDefaultTtl();
+            }
+        };
+    }
+
+    /**
+     * Get the entity configuration backing a cache name, or null for caches not bound to an entity
+     */
+    private RedisProperties.EntityCacheConfig getEntityCacheConfig(String cacheName) {
+        return switch (cacheName) {
+            case CacheNames.CATEGORY, CacheNames.CATEGORY_BY_NAME, CacheNames.CATEGORY_BY_PATH, CacheNames.ALL_CATEGORIES,
+                 CacheNames.CATEGORY_PAGE -> redisProperties.getCache().getEntities().getCategory();
+            case CacheNames.ARTICLE, CacheNames.ARTICLE_BY_NAME, CacheNames.ARTICLE_BY_PATH, CacheNames.ALL_ARTICLES,
+                 CacheNames.ARTICLE_PAGE -> redisProperties.getCache().getEntities().getArticle();
+            default -> null;
+        };
+    }
+
     private RedisCacheConfiguration createDefaultCacheConfiguration() {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(redisProperties.getCache().getDefaultTtl())
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer))
-                .computePrefixWith(cacheName ->
-                        redisProperties.getCache().getKeyPrefix() +
-                                redisProperties.getCache().getKeySeparator() +
-                                cacheName +
-                                redisProperties.getCache().getKeySeparator());
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        createValueSerializer("default", redisProperties.getCache().getCodec(), redisProperties.getCache().getCompression())))
+                .computePrefixWith(cacheName -> CacheKeys.prefix(redisProperties.getCache(), cacheName));
         // Conditionally disable caching null values
         if (!redisProperties.getCache().isCacheNullValues()) {
             config = config.disableCachingNullValues();
@@ -85,31 +406,39 @@ public class CacheConfig {
 
         // Category caches
         Duration bankTtl = redisProperties.getCache().getEntities().getCategory().getTtl();
-        cacheConfigurations.put(CacheNames.CATEGORY, createCacheConfiguration(bankTtl));
-        cacheConfigurations.put(CacheNames.CATEGORY_BY_NAME, createCacheConfiguration(bankTtl));
-        cacheConfigurations.put(CacheNames.CATEGORY_BY_PATH, createCacheConfiguration(bankTtl));
-        cacheConfigurations.put(CacheNames.ALL_CATEGORIES, createCacheConfiguration(bankTtl));
+        cacheConfigurations.put(CacheNames.CATEGORY, createCacheConfiguration(CacheNames.CATEGORY, bankTtl));
+        cacheConfigurations.put(CacheNames.CATEGORY_BY_NAME, createCacheConfiguration(CacheNames.CATEGORY_BY_NAME, bankTtl));
+        cacheConfigurations.put(CacheNames.CATEGORY_BY_PATH, createCacheConfiguration(CacheNames.CATEGORY_BY_PATH, bankTtl));
+        cacheConfigurations.put(CacheNames.ALL_CATEGORIES, createCacheConfiguration(CacheNames.ALL_CATEGORIES, bankTtl));
+        cacheConfigurations.put(CacheNames.CATEGORY_PAGE, createCacheConfiguration(CacheNames.CATEGORY_PAGE, bankTtl));
+        cacheConfigurations.put(CacheNames.CATEGORY_COUNT, createCacheConfiguration(CacheNames.CATEGORY_COUNT,
+                getCacheTtl(CacheNames.CATEGORY_COUNT)));
 
         // Article caches
         Duration accountTtl = redisProperties.getCache().getEntities().getArticle().getTtl();
-        cacheConfigurations.put(CacheNames.ARTICLE, createCacheConfiguration(accountTtl));
-        cacheConfigurations.put(CacheNames.ARTICLE_BY_NAME, createCacheConfiguration(accountTtl));
-        cacheConfigurations.put(CacheNames.ARTICLE_BY_PATH, createCacheConfiguration(accountTtl));
-        cacheConfigurations.put(CacheNames.ALL_ARTICLES, createCacheConfiguration(accountTtl));
+        cacheConfigurations.put(CacheNames.ARTICLE, createCacheConfiguration(CacheNames.ARTICLE, accountTtl));
+        cacheConfigurations.put(CacheNames.ARTICLE_BY_NAME, createCacheConfiguration(CacheNames.ARTICLE_BY_NAME, accountTtl));
+        cacheConfigurations.put(CacheNames.ARTICLE_BY_PATH, createCacheConfiguration(CacheNames.ARTICLE_BY_PATH, accountTtl));
+        cacheConfigurations.put(CacheNames.ALL_ARTICLES, createCacheConfiguration(CacheNames.ALL_ARTICLES, accountTtl));
+        cacheConfigurations.put(CacheNames.ARTICLE_PAGE, createCacheConfiguration(CacheNames.ARTICLE_PAGE, accountTtl));
+        cacheConfigurations.put(CacheNames.ARTICLE_COUNT, createCacheConfiguration(CacheNames.ARTICLE_COUNT,
+                getCacheTtl(CacheNames.ARTICLE_COUNT)));
 
         return cacheConfigurations;
     }
 
-    private RedisCacheConfiguration createCacheConfiguration(Duration ttl) {
+    private RedisCacheConfiguration createCacheConfiguration(String name, Duration ttl) {
+        RedisProperties.CacheSpec spec = redisProperties.getCache().getCacheSpec(name);
+        String codec = spec.getCodec() != null ? spec.getCodec() : redisProperties.getCache().getCodec();
+        RedisProperties.Compression compression = spec.getCompression() != null
+                ? spec.getCompression()
+                : redisProperties.getCache().getCompression();
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(ttl)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer))
-                .computePrefixWith(cacheName ->
-                        redisProperties.getCache().getKeyPrefix() +
-                                redisProperties.getCache().getKeySeparator() +
-                                cacheName +
-                                redisProperties.getCache().getKeySeparator());
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        createValueSerializer(name, codec, compression)))
+                .computePrefixWith(cacheName -> CacheKeys.prefix(redisProperties.getCache(), cacheName));
         // Conditionally disable caching null values
         if (!redisProperties.getCache().isCacheNullValues()) {
             config = config.disableCachingNullValues();
@@ -117,4 +446,31 @@ public class CacheConfig {
 
         return config;
     }
+
+    /**
+     * Value serializer writing with the named codec and reading values of every registered codec,
+     * as well as values stored as plain JSON before codecs were introduced. Large values are compressed
+     * when enabled; compressed and uncompressed values are both read back.
+     */
+    private RedisSerializer<Object> createValueSerializer(String cacheName, String codecName,
+                                                          RedisProperties.Compression compression) {
+        CacheValueCodec writeCodec = cacheValueCodecs.stream()
+                .filter(codec -> codec.getName().equalsIgnoreCase(codecName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown cache value codec '" + codecName + "'"));
+        RedisSerializer<Object> serializer = new CodecRedisSerializer(writeCodec, cacheValueCodecs, jsonRedisSerializer);
+
+        // Values written while compression was enabled stay readable after it is disabled
+        byte compressorId = switch (compression.getAlgorithm()) {
+            case DEFLATE -> DeflateValueCompressor.ID;
+            case LZ4 -> Lz4ValueCompressor.ID;
+        };
+        ValueCompressor compressor = valueCompressors.stream()
+                .filter(candidate -> candidate.getId() == compressorId)
+                .findFirst()
+                .orElseThrow();
+        int threshold = compression.isEnabled() ? (int) compression.getThreshold().toBytes() : Integer.MAX_VALUE;
+        return new CompressingRedisSerializer(serializer, compressor, valueCompressors, threshold,
+                (int) Math.min(compression.getMaxValueSize().toBytes(), Integer.MAX_VALUE), cacheName, meterRegistry);
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.config;
+
+import com.example.config.cache.CompressingRedisSerializer;
+import com.example.config.cache.DeflateValueCompressor;
+import com.example.config.cache.Lz4ValueCompressor;
+import com.example.config.cache.RedisKeyScanner;
+import com.example.config.cache.RedisRegionFactory;
+import com.example.config.cache.ScanBatchStrategy;
+import com.example.config.cache.ValueCompressor;
+import com.example.config.properties.RedisProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.SharedCacheMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Hibernate second-level cache in Redis.
+ * <p>
+ * Entities, collections and query results annotated as cacheable are stored in the regions of a
+ * {@link RedisRegionFactory}, so that the entity loads of the write paths and lazy associations skip the database.
+ * Hibernate cache entries are not plain DTOs, they are written with JDK serialization and compressed like the other
+ * caches.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnExpression("${application.redis.enabled:true} and ${application.redis.cache.second-level.enabled:true}")
+public class HibernateCacheConfig {
+
+    private static final String SERIALIZER_METER_NAME = "hibernate_l2";
+
+    private final RedisProperties redisProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<ValueCompressor> valueCompressors = List.of(new DeflateValueCompressor(), new Lz4ValueCompressor());
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(RedisConnectionFactory connectionFactory,
+                                                                    RedisKeyScanner redisKeyScanner) {
+        RedisProperties.Cache cache = redisProperties.getCache();
+        RedisRegionFactory regionFactory = new RedisRegionFactory(connectionFactory, createValueSerializer(),
+                new ScanBatchStrategy(redisKeyScanner),
+                cache.getKeyPrefix() + cache.getKeySeparator() + cache.getSecondLevel().getRegionPrefix() + cache.getKeySeparator(),
+                cache.getKeySeparator(),
+                this::getRegionTtl);
+        log.info("Hibernate second-level cache stored in Redis");
+
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            // Category.articles is the inverse side of Article.category: without this, creating, deleting or moving an
+            // article leaves the cached collection of its categories stale until their TTL
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+        };
+    }
+
+    /**
+     * Entity and collection regions expire with the service caches of their entity. Update timestamps never expire,
+     * since a cached query result is only valid as long as the timestamps of its tables are known.
+     */
+    private Duration getRegionTtl(String regionName) {
+        RedisProperties.Cache cache = redisProperties.getCache();
+        return switch (regionName) {
+            case CacheConfig.CacheNames.CATEGORY_ENTITY, CacheConfig.CacheNames.CATEGORY_ARTICLES ->
+                    cache.getEntities().getCategory().getTtl();
+            case CacheConfig.CacheNames.ARTICLE_ENTITY -> cache.getEntities().getArticle().getTtl();
+            case RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME -> cache.getSecondLevel().getQueryTtl();
+            case RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME -> null;
+            default -> cache.getDefaultTtl();
+        };
+    }
+
+    private RedisSerializer<Object> createValueSerializer() {
+        RedisProperties.Compression compression = redisProperties.getCache().getCompression();
+        byte compressorId = switch (compression.getAlgorithm()) {
+            case DEFLATE -> DeflateValueCompressor.ID;
+            case LZ4 -> Lz4ValueCompressor.ID;
+        };
+        ValueCompressor compressor = valueCompressors.stream()
+                .filter(candidate -> candidate.getId() == compressorId)
+                .findFirst()
+                .orElseThrow();
+        int threshold = compression.isEnabled() ? (int) compression.getThreshold().toBytes() : Integer.MAX_VALUE;
+        return new CompressingRedisSerializer(new JdkSerializationRedisSerializer(), compressor, valueCompressors,
+                threshold, (int) Math.min(compression.getMaxValueSize().toBytes(), Integer.MAX_VALUE),
+                SERIALIZER_METER_NAME, meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.config;
+
+import com.example.common.repository.BaseRepositoryImpl;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * JPA configuration: backs the repositories with {@link BaseRepositoryImpl}
+ */
+@Configuration
+@EnableJpaRepositories(basePackages = "com.example.repository", repositoryBaseClass = BaseRepositoryImpl.class)
+public class JpaConfig {
+}
@@ -1,11 +1,17 @@
 package com.example.config;
 
+import com.example.config.cache.CacheValueCodec;
+import com.example.config.cache.JacksonCacheValueCodec;
 import com.example.config.properties.RedisProperties;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
@@ -171,7 +177,11 @@ public class RedisConfig {
     }
 
     private ObjectMapper createObjectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
+        return createObjectMapper(new JsonFactory());
+    }
+
+    private ObjectMapper createObjectMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
         objectMapper.registerModule(new JavaTimeModule());          // Support for Java 8 Date/Time API
         objectMapper.registerModule(new ParameterNamesModule());    // Need for Page/PageImpl
         objectMapper.registerModule(new Hibernate6Module());        // Support for Hibernate 6
@@ -200,4 +210,28 @@ public class RedisConfig {
     public GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
         return new GenericJackson2JsonRedisSerializer(createObjectMapper());
     }
+
+    /*
+     * Cache value codecs, selected per cache name with application.redis.cache.codec / caches.{name}.codec.
+     * Ids are persisted in the value headers and must never be reused for another format.
+     */
+
+    @Bean
+    public CacheValueCodec jsonCacheValueCodec() {
+        return new JacksonCacheValueCodec("json", (byte) 1, createObjectMapper());
+    }
+
+    @Bean
+    public CacheValueCodec smileCacheValueCodec() {
+        // Back-references repeated strings too, which collapses the type ids written for every nested object
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new JacksonCacheValueCodec("smile", (byte) 2, createObjectMapper(smileFactory));
+    }
+
+    @Bean
+    public CacheValueCodec cborCacheValueCodec() {
+        return new JacksonCacheValueCodec("cbor", (byte) 3, createObjectMapper(new CBORFactory()));
+    }
 }
@@ -0,0 +1,177 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Maintains an O(1) size estimate per cache with Redis HyperLogLogs of the keys written to it.
+ * <p>
+ * Written keys are buffered in memory and added by {@link #flush()} with one pipelined PFADD per cache, so cache
+ * writes never wait for the tracking. The HyperLogLogs rotate every cache TTL: each one covers the keys written
+ * during one TTL period and expires at a fixed time one TTL after the period ends. The estimate is the union of the
+ * current and previous periods, which holds every entry still alive, with the usual ~0.8% HyperLogLog error.
+ * Single evictions, expirations and keys of abandoned generations are not subtracted until their period rotates out,
+ * so the estimate is an upper bound of the live entry count. Tracking failures are logged and never fail the cache
+ * operation.
+ */
+@Slf4j
+public class CacheCardinalityTracker {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final String keyPrefix;
+    private final String keySeparator;
+    private final Function<String, Duration> ttls;
+    private final int maxPendingKeys;
+    private final Map<String, Set<String>> pendingKeys = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param connectionFactory Redis connection factory
+     * @param keyPrefix         Prefix of the HyperLogLog keys, which must not fall inside any cache key space
+     * @param keySeparator      Separator between the cache name and the period of a HyperLogLog key
+     * @param ttls              TTL of each cache by name, null or zero for no expiration
+     * @param maxPendingKeys    Keys buffered per cache between two flushes, further keys are dropped
+     */
+    public CacheCardinalityTracker(RedisConnectionFactory connectionFactory, String keyPrefix, String keySeparator,
+                                   Function<String, Duration> ttls, int maxPendingKeys) {
+        this.connectionFactory = connectionFactory;
+        this.keyPrefix = keyPrefix;
+        this.keySeparator = keySeparator;
+        this.ttls = ttls;
+        this.maxPendingKeys = maxPendingKeys;
+    }
+
+    /**
+     * Record that a key was written to a cache, it is added to the estimate on the next flush
+     *
+     * @param cacheName Cache name
+     * @param key       Cache key
+     */
+    public void track(String cacheName, Object key) {
+        Set<String> keys = pendingKeys.computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet());
+        if (keys.size() >= maxPendingKeys) {
+            dropped.increment();
+            return;
+        }
+        keys.add(String.valueOf(key));
+    }
+
+    /**
+     * Record that keys were written to a cache, they are added to the estimate on the next flush
+     */
+    public void trackAll(String cacheName, Collection<?> keys) {
+        keys.forEach(key -> track(cacheName, key));
+    }
+
+    /**
+     * Add the keys tracked since the last flush to the HyperLogLogs, called periodically from a single thread
+     */
+    public void flush() {
+        long now = System.currentTimeMillis();
+        Map<String, List<byte[]>> elements = new HashMap<>();
+        pendingKeys.forEach((cacheName, keys) -> {
+            List<byte[]> cacheElements = new ArrayList<>();
+            // Keys added while draining are either taken now or left for the next flush
+            for (Iterator<String> iterator = keys.iterator(); iterator.hasNext(); ) {
+                cacheElements.add(iterator.next().getBytes(StandardCharsets.UTF_8));
+                iterator.remove();
+            }
+            if (!cacheElements.isEmpty()) {
+                elements.put(cacheName, cacheElements);
+            }
+        });
+        if (elements.isEmpty()) {
+            return;
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            // Cluster connections cannot pipeline across slots, the per-cache commands are sent one by one there
+            boolean pipelined = !(connection instanceof RedisClusterConnection);
+            if (pipelined) {
+                connection.openPipeline();
+            }
+            elements.forEach((cacheName, cacheElements) -> {
+                Duration ttl = getTtl(cacheName);
+                long period = getPeriod(ttl, now);
+                byte[] trackingKey = getTrackingKey(cacheName, period);
+                connection.hyperLogLogCommands().pfAdd(trackingKey, cacheElements.toArray(byte[][]::new));
+                if (ttl != null) {
+                    // A fixed expiry time, so that writes do not keep a period alive
+                    connection.keyCommands().pExpireAt(trackingKey, (period + 2) * ttl.toMillis());
+                }
+            });
+            if (pipelined) {
+                connection.closePipeline();
+            }
+        } catch (Exception e) {
+            log.debug("Error tracking keys of {} cache(s): {}", elements.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Get the estimated number of entries of a cache
+     */
+    public long estimate(String cacheName) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Long count = connection.hyperLogLogCommands().pfCount(getTrackingKeys(cacheName));
+            return count != null ? count : 0;
+        }
+    }
+
+    /**
+     * Reset the estimate of a cache, e.g. after it was cleared
+     */
+    public void reset(String cacheName) {
+        pendingKeys.remove(cacheName);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(getTrackingKeys(cacheName));
+        } catch (Exception e) {
+            log.warn("Error resetting size estimate of cache '{}': {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Get the number of tracked keys dropped because the buffer of their cache was full
+     */
+    public long getDroppedKeys() {
+        return dropped.sum();
+    }
+
+    // HyperLogLogs of the current and previous periods, hash-tagged by cache name so that they share a cluster slot
+    private byte[][] getTrackingKeys(String cacheName) {
+        Duration ttl = getTtl(cacheName);
+        long period = getPeriod(ttl, System.currentTimeMillis());
+        if (ttl == null) {
+            return new byte[][]{getTrackingKey(cacheName, period)};
+        }
+        return new byte[][]{getTrackingKey(cacheName, period - 1), getTrackingKey(cacheName, period)};
+    }
+
+    private byte[] getTrackingKey(String cacheName, long period) {
+        return (keyPrefix + "{" + cacheName + "}" + keySeparator + period).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Duration getTtl(String cacheName) {
+        Duration ttl = ttls.apply(cacheName);
+        return ttl != null && !ttl.isZero() && !ttl.isNegative() ? ttl : null;
+    }
+
+    private static long getPeriod(Duration ttl, long now) {
+        return ttl != null ? now / ttl.toMillis() : 0;
+    }
+}
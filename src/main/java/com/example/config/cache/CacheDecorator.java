@@ -0,0 +1,19 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Wraps a cache with an additional behaviour layer. Implementations may return the given cache unchanged
+ * when the layer does not apply to it.
+ */
+@FunctionalInterface
+public interface CacheDecorator {
+
+    /**
+     * Decorate a cache
+     *
+     * @param cache Cache to decorate
+     * @return Decorated cache, or the given cache if the layer does not apply
+     */
+    Cache decorate(Cache cache);
+}
@@ -0,0 +1,12 @@
+package com.example.config.cache;
+
+/**
+ * Envelope stored in Redis by {@link RefreshingCache}, carrying the metadata needed to refresh an entry before it
+ * expires
+ *
+ * @param value      Cached value
+ * @param loadMillis Time it took to load the value, in milliseconds
+ * @param expiresAt  Epoch millisecond at which the value is due for a refresh
+ */
+public record CacheEntry(Object value, long loadMillis, long expiresAt) {
+}
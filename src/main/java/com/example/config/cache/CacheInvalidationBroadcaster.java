@@ -0,0 +1,104 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Propagates L1 invalidations between application nodes through Redis pub/sub.
+ * <p>
+ * Message format: {@code <nodeId>|<E|M|C>|<cacheName>|<key>} where E evicts a single key, M evicts several keys
+ * separated by NUL characters and C clears the cache.
+ * Messages published by this node are ignored on receipt since the local tier is already up to date.
+ */
+@Slf4j
+public class CacheInvalidationBroadcaster implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+    private static final String EVICT = "E";
+    private static final String EVICT_ALL = "M";
+    private static final String KEY_SEPARATOR = "\0";
+    private static final String CLEAR = "C";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final byte[] channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<LocalInvalidationTarget>> targets = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBroadcaster(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Register node-local cache state so that remote invalidations reach it
+     */
+    public void register(LocalInvalidationTarget target) {
+        targets.computeIfAbsent(target.getName(), name -> new CopyOnWriteArrayList<>()).add(target);
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        publish(EVICT, cacheName, String.valueOf(key));
+    }
+
+    /**
+     * Publish the eviction of several keys as a single message
+     */
+    public void publishEvictAll(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        publish(EVICT_ALL, cacheName, String.join(KEY_SEPARATOR, keys.stream().map(String::valueOf).toList()));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(CLEAR, cacheName, "");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        List<LocalInvalidationTarget> cacheTargets = targets.get(parts[2]);
+        if (cacheTargets == null) {
+            return;
+        }
+
+        if (CLEAR.equals(parts[1])) {
+            cacheTargets.forEach(LocalInvalidationTarget::clearLocal);
+            log.debug("Cleared local state of cache '{}' on remote request", parts[2]);
+        } else if (EVICT_ALL.equals(parts[1])) {
+            String[] keys = parts[3].split(KEY_SEPARATOR);
+            for (String key : keys) {
+                cacheTargets.forEach(target -> target.evictLocal(key));
+            }
+            log.debug("Evicted {} keys from local state of cache '{}' on remote request", keys.length, parts[2]);
+        } else {
+            cacheTargets.forEach(target -> target.evictLocal(parts[3]));
+            log.debug("Evicted key '{}' from local state of cache '{}' on remote request", parts[3], parts[2]);
+        }
+    }
+
+    private void publish(String operation, String cacheName, String key) {
+        String message = nodeId + SEPARATOR + operation + SEPARATOR + cacheName + SEPARATOR + key;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel, message.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            // Remote L1 copies still expire through their local TTL
+            log.warn("Error publishing cache invalidation for cache '{}': {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.config.cache;
+
+import com.example.config.properties.RedisProperties;
+
+/**
+ * Redis key layout of the service caches: {@code <key prefix><separator><cache name><separator><key>}
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    /**
+     * Prefix of every key of a cache
+     *
+     * @param cache     Cache properties
+     * @param cacheName Cache name
+     * @return Key prefix, ending with the separator
+     */
+    public static String prefix(RedisProperties.Cache cache, String cacheName) {
+        return cache.getKeyPrefix() + cache.getKeySeparator() + cacheName + cache.getKeySeparator();
+    }
+
+    /**
+     * Redis key of a cache entry
+     *
+     * @param cache     Cache properties
+     * @param cacheName Cache name
+     * @param key       Cache key
+     * @return Redis key
+     */
+    public static String key(RedisProperties.Cache cache, String cacheName, String key) {
+        return cache.getKeyPrefix() + cache.getKeySeparator() + cacheName + cache.getKeySeparator() + key;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.config.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one cache on this node, fed by {@link InstrumentedCache} and {@link RedisTimingCache}.
+ * <p>
+ * Counters are striped {@link LongAdder}s so that recording never contends between request threads; they are
+ * exposed as {@code cache.requests}, {@code cache.writes}, {@code cache.removals} function counters, load and Redis
+ * latencies as {@code cache.load.time} and {@code cache.redis.time} timers with client-side percentiles. Loads are
+ * tagged by cause, a miss or a refresh of a present entry, and by outcome, so that failed loads are timed apart.
+ */
+public class CacheMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Timer loadTimer;
+    private final Timer loadErrorTimer;
+    private final Timer refreshTimer;
+    private final Timer refreshErrorTimer;
+    private final Timer redisGetTimer;
+    private final Timer redisPutTimer;
+    private final Timer redisEvictTimer;
+
+    public CacheMetrics(String cacheName, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.requests", hits, LongAdder::sum)
+                .description("Cache lookups")
+                .tags("cache", cacheName, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.requests", misses, LongAdder::sum)
+                .description("Cache lookups")
+                .tags("cache", cacheName, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.requests", refreshes, LongAdder::sum)
+                .description("Cache lookups")
+                .tags("cache", cacheName, "result", "refresh")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.writes", puts, LongAdder::sum)
+                .description("Entries written to the cache")
+                .tags("cache", cacheName)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.removals", evictions, LongAdder::sum)
+                .description("Evictions and clears of the cache")
+                .tags("cache", cacheName)
+                .register(meterRegistry);
+
+        this.loadTimer = loadTimer(cacheName, "miss", "success", meterRegistry);
+        this.loadErrorTimer = loadTimer(cacheName, "miss", "error", meterRegistry);
+        this.refreshTimer = loadTimer(cacheName, "refresh", "success", meterRegistry);
+        this.refreshErrorTimer = loadTimer(cacheName, "refresh", "error", meterRegistry);
+        this.redisGetTimer = redisTimer(cacheName, "get", meterRegistry);
+        this.redisPutTimer = redisTimer(cacheName, "put", meterRegistry);
+        this.redisEvictTimer = redisTimer(cacheName, "evict", meterRegistry);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * A lookup found its entry due for a refresh and waited for it
+     */
+    public void recordRefresh() {
+        refreshes.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * A missing entry was loaded
+     */
+    public void recordLoad(long nanos, boolean success) {
+        (success ? loadTimer : loadErrorTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A present entry was loaded again, in the caller's thread or in the background
+     */
+    public void recordRefreshLoad(long nanos, boolean success) {
+        (success ? refreshTimer : refreshErrorTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRedisGet(long nanos) {
+        redisGetTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRedisPut(long nanos) {
+        redisPutTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRedisEvict(long nanos) {
+        redisEvictTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getLoadCount() {
+        return loadTimer.count() + loadErrorTimer.count();
+    }
+
+    public long getLoadFailureCount() {
+        return loadErrorTimer.count();
+    }
+
+    public long getRefreshLoadCount() {
+        return refreshTimer.count() + refreshErrorTimer.count();
+    }
+
+    public long getRefreshLoadFailureCount() {
+        return refreshErrorTimer.count();
+    }
+
+    public Duration getAverageLoadTime() {
+        long count = getLoadCount();
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        double total = loadTimer.totalTime(TimeUnit.NANOSECONDS) + loadErrorTimer.totalTime(TimeUnit.NANOSECONDS);
+        return Duration.ofNanos((long) (total / count));
+    }
+
+    public long getRedisGetCount() {
+        return redisGetTimer.count();
+    }
+
+    /**
+     * Get a recent percentile of the Redis GET latency
+     *
+     * @param percentile One of 0.5, 0.95 or 0.99
+     */
+    public Duration getRedisGetLatency(double percentile) {
+        for (ValueAtPercentile value : redisGetTimer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    private static Timer loadTimer(String cacheName, String cause, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("cache.load.time")
+                .description("Time spent in cache loaders")
+                .tags("cache", cacheName, "cause", cause, "outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    private static Timer redisTimer(String cacheName, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("cache.redis.time")
+                .description("Latency of Redis cache operations")
+                .tags("cache", cacheName, "operation", operation)
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+}
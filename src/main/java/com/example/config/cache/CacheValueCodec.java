@@ -0,0 +1,25 @@
+package com.example.config.cache;
+
+/**
+ * Encoding of cache values stored in Redis. Codecs are registered as beans and selected per cache name;
+ * the id is written in front of every value so that values of any registered codec can be read back.
+ */
+public interface CacheValueCodec {
+
+    /**
+     * Codec name used in the configuration, e.g. {@code json}
+     */
+    String getName();
+
+    /**
+     * Codec id written in the value header, unique among the registered codecs
+     */
+    byte getId();
+
+    byte[] encode(Object value);
+
+    /**
+     * Decode a value from a region of a byte array
+     */
+    Object decode(byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,55 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator feeding the keys written to the cache into its {@link CacheCardinalityTracker} estimate
+ */
+public class CardinalityTrackingCache extends DelegatingCache {
+
+    private final CacheCardinalityTracker tracker;
+
+    public CardinalityTrackingCache(Cache delegate, CacheCardinalityTracker tracker) {
+        super(delegate);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return getDelegate().get(key, () -> {
+            T value = valueLoader.call();
+            tracker.track(getName(), key);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getDelegate().put(key, value);
+        tracker.track(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = getDelegate().putIfAbsent(key, value);
+        if (existing == null) {
+            tracker.track(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void clear() {
+        getDelegate().clear();
+        tracker.reset(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = getDelegate().invalidate();
+        tracker.reset(getName());
+        return invalidated;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache decorator coalescing concurrent loads of the same key within the JVM (single flight).
+ * <p>
+ * The first caller missing a key runs the lookup and loader through the decorated cache; concurrent callers of the
+ * same key wait for its in-flight future and share the result or failure. Calls for different keys never block
+ * each other. Only {@link #get(Object, Callable)} is coalesced, i.e. {@code @Cacheable(sync = true)} methods.
+ */
+public class CoalescingCache extends DelegatingCache {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingCache(Cache delegate) {
+        super(delegate);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+
+        try {
+            T value = getDelegate().get(key, valueLoader);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Get the number of loads currently in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's failure as is, e.g. a ValueRetrievalException unwrapped by the cache interceptor
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis value serializer writing values with a selected {@link CacheValueCodec} behind a two-byte header
+ * ({@code 0x1E <codec id>}).
+ * <p>
+ * Reads dispatch on the header, so a cache can switch codec without being flushed: entries written with the previous
+ * codec stay readable until they expire. Values without a header (written before codecs were introduced) are read
+ * with the legacy serializer; they cannot be mistaken for a header since a JSON document never starts with 0x1E.
+ */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = 0x1E;
+
+    private final CacheValueCodec writeCodec;
+    private final Map<Byte, CacheValueCodec> readCodecs = new HashMap<>();
+    private final RedisSerializer<Object> legacySerializer;
+
+    /**
+     * @param writeCodec       Codec new values are written with
+     * @param codecs           All registered codecs, used to read values back
+     * @param legacySerializer Serializer of values stored without a header
+     */
+    public CodecRedisSerializer(CacheValueCodec writeCodec, Collection<? extends CacheValueCodec> codecs,
+                                RedisSerializer<Object> legacySerializer) {
+        this.writeCodec = writeCodec;
+        this.legacySerializer = legacySerializer;
+        codecs.forEach(codec -> readCodecs.put(codec.getId(), codec));
+        readCodecs.put(writeCodec.getId(), writeCodec);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        byte[] payload = writeCodec.encode(value);
+        byte[] bytes = new byte[payload.length + 2];
+        bytes[0] = MAGIC;
+        bytes[1] = writeCodec.getId();
+        System.arraycopy(payload, 0, bytes, 2, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes.length < 2) {
+            return legacySerializer.deserialize(bytes);
+        }
+
+        CacheValueCodec codec = readCodecs.get(bytes[1]);
+        if (codec == null) {
+            throw new SerializationException("Unknown cache value codec id " + bytes[1]);
+        }
+        return codec.decode(bytes, 2, bytes.length - 2);
+    }
+
+    public CacheValueCodec getWriteCodec() {
+        return writeCodec;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer compressing the output of another serializer once it reaches a size threshold.
+ * <p>
+ * Compressed values are written as {@code 0x1F <compressor id> <original length, 4 bytes> <compressed bytes>};
+ * smaller values, and values compression does not shrink, are written as produced by the delegate. Both forms
+ * coexist, so the threshold or algorithm can change without a flush. The delegate output never starts with 0x1F
+ * (codec header or JSON). The original length of a compressed value is bounded, so that a corrupt or foreign value
+ * fails to read instead of allocating up to 2 GB; values above the bound are written uncompressed. Compression ratio,
+ * CPU time and byte counts are published per cache as {@code cache.compression.*} meters.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = 0x1F;
+    private static final int HEADER_LENGTH = 6;
+
+    private final RedisSerializer<Object> delegate;
+    private final ValueCompressor compressor;
+    private final Map<Byte, ValueCompressor> decompressors = new HashMap<>();
+    private final int threshold;
+    private final int maxOriginalLength;
+
+    private final Timer compressTimer;
+    private final Timer decompressTimer;
+    private final DistributionSummary ratio;
+    private final Counter originalBytes;
+    private final Counter storedBytes;
+
+    /**
+     * @param delegate      Serializer producing the uncompressed bytes
+     * @param compressor    Compressor applied to new values
+     * @param compressors   All compressors, used to read values back
+     * @param threshold         Minimum serialized size, in bytes, for a value to be compressed
+     * @param maxOriginalLength Maximum serialized size, in bytes, of a compressed value
+     * @param cacheName         Cache name used as meter tag
+     * @param meterRegistry     Registry of the compression meters
+     */
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, ValueCompressor compressor,
+                                      Collection<? extends ValueCompressor> compressors, int threshold,
+                                      int maxOriginalLength, String cacheName, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.compressor = compressor;
+        this.threshold = threshold;
+        this.maxOriginalLength = maxOriginalLength;
+        compressors.forEach(c -> decompressors.put(c.getId(), c));
+        decompressors.put(compressor.getId(), compressor);
+
+        this.compressTimer = Timer.builder("cache.compression.time")
+                .description("CPU time spent compressing or decompressing cache values")
+                .tags("cache", cacheName, "operation", "compress")
+                .register(meterRegistry);
+        this.decompressTimer = Timer.builder("cache.compression.time")
+                .description("CPU time spent compressing or decompressing cache values")
+                .tags("cache", cacheName, "operation", "decompress")
+                .register(meterRegistry);
+        this.ratio = DistributionSummary.builder("cache.compression.ratio")
+                .description("Original to compressed size ratio of compressed cache values")
+                .tags("cache", cacheName)
+                .register(meterRegistry);
+        this.originalBytes = Counter.builder("cache.compression.bytes")
+                .description("Size of cache values above the compression threshold, before and after compression")
+                .tags("cache", cacheName, "stage", "original")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.storedBytes = Counter.builder("cache.compression.bytes")
+                .description("Size of cache values above the compression threshold, before and after compression")
+                .tags("cache", cacheName, "stage", "stored")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null || bytes.length < threshold || bytes.length > maxOriginalLength) {
+            return bytes;
+        }
+
+        long start = System.nanoTime();
+        byte[] compressed = compressor.compress(bytes);
+        compressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        originalBytes.increment(bytes.length);
+
+        if (compressed.length + HEADER_LENGTH >= bytes.length) {
+            storedBytes.increment(bytes.length);
+            return bytes;
+        }
+
+        byte[] result = new byte[compressed.length + HEADER_LENGTH];
+        result[0] = MAGIC;
+        result[1] = compressor.getId();
+        result[2] = (byte) (bytes.length >>> 24);
+        result[3] = (byte) (bytes.length >>> 16);
+        result[4] = (byte) (bytes.length >>> 8);
+        result[5] = (byte) bytes.length;
+        System.arraycopy(compressed, 0, result, HEADER_LENGTH, compressed.length);
+
+        storedBytes.increment(result.length);
+        ratio.record((double) bytes.length / result.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+            return delegate.deserialize(bytes);
+        }
+
+        ValueCompressor decompressor = decompressors.get(bytes[1]);
+        if (decompressor == null) {
+            throw new SerializationException("Unknown cache value compressor id " + bytes[1]);
+        }
+        int originalLength = ((bytes[2] & 0xFF) << 24) | ((bytes[3] & 0xFF) << 16) | ((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF);
+        if (originalLength < 0 || originalLength > maxOriginalLength) {
+            throw new SerializationException("Compressed cache value claims an original length of " + originalLength
+                    + " bytes, outside [0, " + maxOriginalLength + "]");
+        }
+
+        long start = System.nanoTime();
+        byte[] decompressed = decompressor.decompress(bytes, HEADER_LENGTH, originalLength);
+        decompressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return delegate.deserialize(decompressed);
+    }
+}
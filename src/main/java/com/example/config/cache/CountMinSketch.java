@@ -0,0 +1,77 @@
+package com.example.config.cache;
+
+/**
+ * Count-min sketch estimating the frequency of keys in a stream within a fixed amount of memory.
+ * <p>
+ * Estimates never undercount; they overcount by at most {@code e / width} of the total count with probability
+ * {@code 1 - e^-depth}. Not thread-safe: meant to be owned by a single thread.
+ */
+public class CountMinSketch {
+
+    private final long[][] counters;
+    private final long[] seeds;
+    private final int mask;
+
+    /**
+     * @param width Counters per row, rounded up to a power of two
+     * @param depth Number of rows (independent hash functions)
+     */
+    public CountMinSketch(int width, int depth) {
+        int size = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.counters = new long[depth][size];
+        this.seeds = new long[depth];
+        this.mask = size - 1;
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = mix(0x9E3779B97F4A7C15L * (i + 1));
+        }
+    }
+
+    /**
+     * Count an occurrence of a key
+     *
+     * @return The new frequency estimate of the key
+     */
+    public long add(Object key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < counters.length; i++) {
+            int index = index(hash, i);
+            estimate = Math.min(estimate, ++counters[i][index]);
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < counters.length; i++) {
+            estimate = Math.min(estimate, counters[i][index(hash, i)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve every counter, so that older occurrences weigh less than recent ones
+     */
+    public void decay() {
+        for (long[] row : counters) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] >>>= 1;
+            }
+        }
+    }
+
+    private int index(int hash, int row) {
+        return (int) mix(hash ^ seeds[row]) & mask;
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator namespacing keys with a generation number kept in Redis, so that clearing the cache is a single
+ * INCR instead of a sweep over its keys.
+ * <p>
+ * Keys are stored as {@code g<generation>:<key>}. Entries of older generations are no longer reachable and age out
+ * through the cache TTL. Each node caches the current generation for a short time; a clear is broadcast so that
+ * other nodes re-read it immediately, the local generation TTL bounding staleness if a message is lost.
+ */
+@Slf4j
+public class GenerationalCache extends DelegatingCache implements LocalInvalidationTarget {
+
+    private static final String GENERATION_PREFIX = "g";
+    private static final String GENERATION_SEPARATOR = ":";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final byte[] generationKey;
+    private final long localTtlNanos;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    private volatile long generation;
+    private volatile long generationReadAt;
+    private volatile boolean generationKnown;
+
+    public GenerationalCache(Cache delegate, RedisConnectionFactory connectionFactory, String generationKey,
+                             Duration localTtl, CacheInvalidationBroadcaster broadcaster) {
+        super(delegate);
+        this.connectionFactory = connectionFactory;
+        this.generationKey = generationKey.getBytes(StandardCharsets.UTF_8);
+        this.localTtlNanos = localTtl.toNanos();
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return getDelegate().get(toStoredKey(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return getDelegate().get(toStoredKey(key), type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return getDelegate().get(toStoredKey(key), valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return getDelegate().retrieve(toStoredKey(key));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return getDelegate().retrieve(toStoredKey(key), valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getDelegate().put(toStoredKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return getDelegate().putIfAbsent(toStoredKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        getDelegate().evict(toStoredKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return getDelegate().evictIfPresent(toStoredKey(key));
+    }
+
+    /**
+     * Start a new generation, leaving the entries of the previous ones to expire
+     */
+    @Override
+    public void clear() {
+        nextGeneration();
+    }
+
+    @Override
+    public boolean invalidate() {
+        nextGeneration();
+        return true;
+    }
+
+    /**
+     * Forget the locally cached generation, forcing it to be read again from Redis
+     */
+    @Override
+    public void clearLocal() {
+        generationKnown = false;
+    }
+
+    @Override
+    public void evictLocal(Object key) {
+        // Single entries are evicted by the decorated cache layers
+    }
+
+    /**
+     * Get the key under which an entry of the current generation is stored in the decorated cache
+     */
+    public String toStoredKey(Object key) {
+        return GENERATION_PREFIX + currentGeneration() + GENERATION_SEPARATOR + key;
+    }
+
+    private long currentGeneration() {
+        long now = System.nanoTime();
+        if (generationKnown && now - generationReadAt < localTtlNanos) {
+            return generation;
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            byte[] value = connection.stringCommands().get(generationKey);
+            updateGeneration(value != null ? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : 0, now);
+        } catch (Exception e) {
+            // Keep using the last known generation, the decorated cache reports the Redis failure itself
+            log.debug("Error reading generation of cache '{}': {}", getName(), e.getMessage());
+        }
+        return generation;
+    }
+
+    private void nextGeneration() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Long next = connection.stringCommands().incr(generationKey);
+            if (next != null) {
+                updateGeneration(next, System.nanoTime());
+            }
+        }
+        broadcaster.publishClear(getName());
+        log.debug("Cache '{}' moved to generation {}", getName(), generation);
+    }
+
+    private void updateGeneration(long value, long readAt) {
+        generation = value;
+        generationReadAt = readAt;
+        generationKnown = true;
+    }
+}
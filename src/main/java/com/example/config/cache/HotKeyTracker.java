@@ -0,0 +1,201 @@
+package com.example.config.cache;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Streaming heavy-hitters detection of the keys of one cache.
+ * <p>
+ * Readers sample accesses into a lossy ring buffer with a single atomic increment and swap, never taking a lock;
+ * when the drain thread falls behind, older samples are overwritten and counted as dropped. The buffer is drained
+ * by a single thread into a {@link CountMinSketch} and a top-K min-heap of the keys with the highest estimates.
+ * Every window all counts are halved, so hot keys reflect recent traffic.
+ */
+public class HotKeyTracker {
+
+    private final String cacheName;
+    private final Function<Object, String> redisKeys;
+    private final double samplingRatio;
+    private final int topK;
+    private final long windowNanos;
+
+    private final AtomicReferenceArray<Object> samples;
+    private final int sampleMask;
+    private final AtomicLong sampleIndex = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Owned by the drain thread
+    private final CountMinSketch sketch;
+    private final Map<Object, HeapEntry> topEntries = new HashMap<>();
+    private final PriorityQueue<HeapEntry> topHeap = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.count));
+    private long sampledTotal;
+    private long windowStart = System.nanoTime();
+
+    private volatile List<HotKey> snapshot = List.of();
+
+    /**
+     * @param cacheName      Name of the tracked cache
+     * @param redisKeys      Redis key under which a cache key is currently stored, used to report cluster slots
+     *                       (null = not reported)
+     * @param samplingRatio  Fraction of accesses sampled
+     * @param topK           Number of hot keys kept
+     * @param window         Period after which counts are halved
+     * @param sketchWidth    Count-min sketch width
+     * @param sketchDepth    Count-min sketch depth
+     * @param bufferSize     Sample buffer size, rounded up to a power of two
+     */
+    public HotKeyTracker(String cacheName, Function<Object, String> redisKeys, double samplingRatio, int topK,
+                         Duration window, int sketchWidth, int sketchDepth, int bufferSize) {
+        this.cacheName = cacheName;
+        this.redisKeys = redisKeys;
+        this.samplingRatio = samplingRatio;
+        this.topK = topK;
+        this.windowNanos = window.toNanos();
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+
+        int size = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        this.samples = new AtomicReferenceArray<>(size);
+        this.sampleMask = size - 1;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Record an access to a key, called on the cache read path
+     */
+    public void record(Object key) {
+        if (key == null || ThreadLocalRandom.current().nextDouble() >= samplingRatio) {
+            return;
+        }
+        int index = (int) (sampleIndex.getAndIncrement() & sampleMask);
+        if (samples.getAndSet(index, key) != null) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Move the buffered samples into the sketch and publish a new snapshot, called by a single thread
+     */
+    public void drain() {
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            decay();
+            windowStart = now;
+        }
+
+        for (int i = 0; i < samples.length(); i++) {
+            Object key = samples.getAndSet(i, null);
+            if (key != null) {
+                sampledTotal++;
+                offer(key, sketch.add(key));
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Get the hottest keys, hottest first
+     *
+     * @param limit Maximum number of keys
+     */
+    public List<HotKey> getHotKeys(int limit) {
+        List<HotKey> current = snapshot;
+        return current.size() > limit ? current.subList(0, limit) : current;
+    }
+
+    /**
+     * Get the share of the sampled accesses going to the hottest key
+     */
+    public double getTopShare() {
+        List<HotKey> current = snapshot;
+        return current.isEmpty() ? 0.0 : current.get(0).share();
+    }
+
+    public long getDroppedSamples() {
+        return dropped.sum();
+    }
+
+    private void offer(Object key, long estimate) {
+        HeapEntry entry = topEntries.get(key);
+        if (entry != null) {
+            // Re-insert to restore the heap order, O(K) for a small K
+            topHeap.remove(entry);
+            entry.count = estimate;
+            topHeap.add(entry);
+            return;
+        }
+        if (topHeap.size() < topK) {
+            add(key, estimate);
+        } else if (estimate > topHeap.peek().count) {
+            topEntries.remove(topHeap.poll().key);
+            add(key, estimate);
+        }
+    }
+
+    private void add(Object key, long estimate) {
+        HeapEntry entry = new HeapEntry(key, estimate);
+        topHeap.add(entry);
+        topEntries.put(key, entry);
+    }
+
+    private void decay() {
+        sketch.decay();
+        sampledTotal >>>= 1;
+        List<HeapEntry> entries = new ArrayList<>(topHeap);
+        topHeap.clear();
+        topEntries.clear();
+        for (HeapEntry entry : entries) {
+            if (entry.count > 1) {
+                add(entry.key, entry.count >>> 1);
+            }
+        }
+    }
+
+    private void publish() {
+        List<HeapEntry> entries = new ArrayList<>(topHeap);
+        entries.sort(Comparator.comparingLong((HeapEntry entry) -> entry.count).reversed());
+
+        List<HotKey> hotKeys = new ArrayList<>(entries.size());
+        for (HeapEntry entry : entries) {
+            Integer slot = redisKeys != null ? ClusterSlotHashUtil.calculateSlot(redisKeys.apply(entry.key)) : null;
+            hotKeys.add(new HotKey(String.valueOf(entry.key), Math.round(entry.count / samplingRatio),
+                    sampledTotal > 0 ? (double) entry.count / sampledTotal : 0.0, slot));
+        }
+        snapshot = List.copyOf(hotKeys);
+    }
+
+    private static final class HeapEntry {
+        private final Object key;
+        private long count;
+
+        private HeapEntry(Object key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    /**
+     * A hot key of a cache
+     *
+     * @param key                Cache key
+     * @param estimatedAccesses  Estimated accesses, decayed by half every window
+     * @param share              Share of the sampled accesses of the cache
+     * @param slot               Redis cluster slot of the key (null if unknown)
+     */
+    public record HotKey(String key, long estimatedAccesses, double share, Integer slot) {
+    }
+}
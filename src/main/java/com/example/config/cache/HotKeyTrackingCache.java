@@ -0,0 +1,54 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator sampling the keys read from a cache into a {@link HotKeyTracker}
+ */
+public class HotKeyTrackingCache extends DelegatingCache {
+
+    private final HotKeyTracker tracker;
+
+    public HotKeyTrackingCache(Cache delegate, HotKeyTracker tracker) {
+        super(delegate);
+        this.tracker = tracker;
+    }
+
+    public HotKeyTracker getTracker() {
+        return tracker;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        tracker.record(key);
+        return getDelegate().get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        tracker.record(key);
+        return getDelegate().get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        tracker.record(key);
+        return getDelegate().get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        tracker.record(key);
+        return getDelegate().retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        tracker.record(key);
+        return getDelegate().retrieve(key, valueLoader);
+    }
+}
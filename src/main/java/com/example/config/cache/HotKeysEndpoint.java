@@ -0,0 +1,49 @@
+package com.example.config.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint listing the hottest keys of each cache on this node ({@code /actuator/hotkeys})
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final CacheManager cacheManager;
+    private final int defaultLimit;
+
+    public HotKeysEndpoint(CacheManager cacheManager, int defaultLimit) {
+        this.cacheManager = cacheManager;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public Map<String, List<HotKeyTracker.HotKey>> hotKeys(@Nullable Integer limit) {
+        Map<String, List<HotKeyTracker.HotKey>> hotKeys = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            HotKeyTracker tracker = getTracker(cacheName);
+            if (tracker != null) {
+                hotKeys.put(cacheName, tracker.getHotKeys(limit != null ? limit : defaultLimit));
+            }
+        }
+        return hotKeys;
+    }
+
+    @ReadOperation
+    public List<HotKeyTracker.HotKey> cacheHotKeys(@Selector String cacheName, @Nullable Integer limit) {
+        HotKeyTracker tracker = getTracker(cacheName);
+        return tracker != null ? tracker.getHotKeys(limit != null ? limit : defaultLimit) : null;
+    }
+
+    private HotKeyTracker getTracker(String cacheName) {
+        HotKeyTrackingCache cache = DelegatingCache.unwrap(cacheManager.getCache(cacheName), HotKeyTrackingCache.class);
+        return cache != null ? cache.getTracker() : null;
+    }
+}
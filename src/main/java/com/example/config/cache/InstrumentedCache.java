@@ -0,0 +1,137 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outermost cache decorator recording hits, misses, puts, evictions and load times into {@link CacheMetrics}.
+ * <p>
+ * A lookup through {@link #get(Object, Callable)} is a miss when its loader runs for a missing entry, and a refresh
+ * when {@link RefreshingCache} runs it for an entry due for a refresh, which it times itself; callers served by a
+ * load coalesced in another thread count as hits. Lookups whose loader throws still count, and the failed load is
+ * timed under {@code outcome=error}.
+ */
+public class InstrumentedCache extends DelegatingCache {
+
+    private final CacheMetrics metrics;
+
+    public InstrumentedCache(Cache delegate, CacheMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = getDelegate().get(key);
+        recordLookup(wrapper != null);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = getDelegate().get(key, type);
+        recordLookup(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Set by the loader: 0 for none, 1 for a miss, 2 for a refresh
+        int[] loaded = new int[1];
+        T value;
+        try {
+            value = getDelegate().get(key, () -> {
+                if (RefreshingCache.takeRefresh()) {
+                    loaded[0] = 2;
+                    return valueLoader.call();
+                }
+                loaded[0] = 1;
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    T result = valueLoader.call();
+                    success = true;
+                    return result;
+                } finally {
+                    metrics.recordLoad(System.nanoTime() - start, success);
+                }
+            });
+        } finally {
+            if (loaded[0] == 1) {
+                metrics.recordMiss();
+            } else if (loaded[0] == 2) {
+                metrics.recordRefresh();
+            }
+        }
+        if (loaded[0] == 0) {
+            metrics.recordHit();
+        }
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return getDelegate().retrieve(key).whenComplete((result, ex) -> {
+            if (ex == null) {
+                recordLookup(result != null);
+            }
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getDelegate().put(key, value);
+        metrics.recordPut();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = getDelegate().putIfAbsent(key, value);
+        if (existing == null) {
+            metrics.recordPut();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        getDelegate().evict(key);
+        metrics.recordEviction();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = getDelegate().evictIfPresent(key);
+        if (evicted) {
+            metrics.recordEviction();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        getDelegate().clear();
+        metrics.recordEviction();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = getDelegate().invalidate();
+        metrics.recordEviction();
+        return invalidated;
+    }
+
+    private void recordLookup(boolean hit) {
+        if (hit) {
+            metrics.recordHit();
+        } else {
+            metrics.recordMiss();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * Cache value codec backed by a Jackson object mapper, for JSON as well as binary formats (Smile, CBOR)
+ */
+public class JacksonCacheValueCodec implements CacheValueCodec {
+
+    private final String name;
+    private final byte id;
+    private final ObjectMapper objectMapper;
+
+    public JacksonCacheValueCodec(String name, byte id, ObjectMapper objectMapper) {
+        this.name = name;
+        this.id = id;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte getId() {
+        return id;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        try {
+            return objectMapper.readValue(bytes, offset, length, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read " + name + ": " + e.getMessage(), e);
+        }
+    }
+}
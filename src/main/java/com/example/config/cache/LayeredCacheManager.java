@@ -0,0 +1,56 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Composite cache manager wrapping every cache of a target manager with a chain of {@link CacheDecorator}s.
+ * Decorators are applied in list order, the first one being closest to the target cache.
+ */
+public class LayeredCacheManager implements CacheManager {
+
+    private final CacheManager targetCacheManager;
+    private final List<CacheDecorator> decorators;
+    private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>();
+
+    public LayeredCacheManager(CacheManager targetCacheManager, List<CacheDecorator> decorators) {
+        this.targetCacheManager = targetCacheManager;
+        this.decorators = List.copyOf(decorators);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = cacheMap.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache targetCache = targetCacheManager.getCache(name);
+        if (targetCache == null) {
+            return null;
+        }
+        return cacheMap.computeIfAbsent(name, key -> decorate(targetCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return targetCacheManager.getCacheNames();
+    }
+
+    public CacheManager getTargetCacheManager() {
+        return targetCacheManager;
+    }
+
+    private Cache decorate(Cache cache) {
+        Cache decorated = cache;
+        for (CacheDecorator decorator : decorators) {
+            decorated = decorator.decorate(decorated);
+        }
+        return decorated;
+    }
+}
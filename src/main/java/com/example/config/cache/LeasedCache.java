@@ -0,0 +1,169 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator protecting a Redis cache against stampedes across application nodes.
+ * <p>
+ * On a miss, nodes race for a lease ({@code SET <key>:lease <token> NX PX}). The winner runs the loader and stores
+ * the value with a script that only writes while it still holds the lease, then releases it. Losers poll the cache
+ * until the value shows up; past the wait timeout they run the loader themselves but never write, so a slow loader
+ * that lost its lease cannot overwrite a fresher value. The lease key shares the hash slot of the cache key
+ * ({@code {<key>}:lease}), as long as cache keys contain no hash tag of their own.
+ */
+@Slf4j
+public class LeasedCache extends DelegatingCache {
+
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    // KEYS[1] = cache key, KEYS[2] = lease key, ARGV[1] = token, ARGV[2] = value, ARGV[3] = TTL in ms (0 = none)
+    // Scripts are package-private so that tests can run them without Lua
+    static final byte[] WRITE_IF_LEASED = """
+            if redis.call('GET', KEYS[2]) ~= ARGV[1] then return 0 end
+            if tonumber(ARGV[3]) > 0 then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            else
+                redis.call('SET', KEYS[1], ARGV[2])
+            end
+            redis.call('DEL', KEYS[2])
+            return 1""".getBytes(StandardCharsets.UTF_8);
+
+    // KEYS[1] = lease key, ARGV[1] = token
+    static final byte[] RELEASE_LEASE = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0""".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration configuration;
+    private final Duration leaseTtl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    public LeasedCache(Cache delegate, RedisCacheConfiguration configuration, RedisConnectionFactory connectionFactory,
+                       Duration leaseTtl, Duration waitTimeout, Duration pollInterval) {
+        super(delegate);
+        this.connectionFactory = connectionFactory;
+        this.configuration = configuration;
+        this.leaseTtl = leaseTtl;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = getDelegate().get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        String redisKey = configuration.getKeyPrefixFor(getName()) + key;
+        byte[] rawKey = ByteUtils.getBytes(configuration.getKeySerializationPair().write(redisKey));
+        byte[] leaseKey = ("{" + redisKey + "}:lease").getBytes(StandardCharsets.UTF_8);
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+        if (acquireLease(leaseKey, token)) {
+            T value = load(key, valueLoader, leaseKey, token);
+            writeIfLeased(key, value, rawKey, leaseKey, token);
+            return value;
+        }
+
+        ValueWrapper loaded = awaitValue(key);
+        if (loaded != null) {
+            return (T) loaded.get();
+        }
+
+        // The lease holder is too slow or gone: load without writing, its lease still guards the cache entry
+        log.debug("Lease wait timed out for key '{}' in cache '{}', loading without caching", key, getName());
+        return load(key, valueLoader, null, null);
+    }
+
+    private boolean acquireLease(byte[] leaseKey, byte[] token) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Boolean acquired = connection.stringCommands().set(leaseKey, token,
+                    Expiration.from(leaseTtl), RedisStringCommands.SetOption.ifAbsent());
+            return Boolean.TRUE.equals(acquired);
+        } catch (Exception e) {
+            // Without Redis coordination every node behaves as a lease holder, as if leases were disabled
+            log.warn("Error acquiring lease in cache '{}': {}", getName(), e.getMessage());
+            return true;
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader, byte[] leaseKey, byte[] token) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            if (leaseKey != null) {
+                releaseLease(leaseKey, token);
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private ValueWrapper awaitValue(Object key) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            ValueWrapper cached = getDelegate().get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private void writeIfLeased(Object key, Object value, byte[] rawKey, byte[] leaseKey, byte[] token) {
+        byte[] rawValue;
+        if (value != null) {
+            rawValue = ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+        } else if (configuration.getAllowCacheNullValues()) {
+            rawValue = BINARY_NULL_VALUE;
+        } else {
+            releaseLease(leaseKey, token);
+            return;
+        }
+
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        long ttlMillis = ttl != null && !ttl.isNegative() ? ttl.toMillis() : 0;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Long written = connection.scriptingCommands().eval(WRITE_IF_LEASED, ReturnType.INTEGER, 2,
+                    rawKey, leaseKey, token, rawValue, String.valueOf(ttlMillis).getBytes(StandardCharsets.UTF_8));
+            if (written == null || written == 0) {
+                log.debug("Lease on key '{}' in cache '{}' expired before the value was written", key, getName());
+            }
+        } catch (Exception e) {
+            log.warn("Error writing leased value for key '{}' in cache '{}': {}", key, getName(), e.getMessage());
+        }
+    }
+
+    private void releaseLease(byte[] leaseKey, byte[] token) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.scriptingCommands().eval(RELEASE_LEASE, ReturnType.INTEGER, 1, leaseKey, token);
+        } catch (Exception e) {
+            // The lease expires by itself
+            log.debug("Error releasing lease in cache '{}': {}", getName(), e.getMessage());
+        }
+    }
+}
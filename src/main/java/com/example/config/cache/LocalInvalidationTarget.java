@@ -0,0 +1,22 @@
+package com.example.config.cache;
+
+/**
+ * Node-local cache state kept consistent across nodes through the {@link CacheInvalidationBroadcaster}
+ */
+public interface LocalInvalidationTarget {
+
+    /**
+     * Name of the cache the local state belongs to
+     */
+    String getName();
+
+    /**
+     * Drop the local state of a single entry
+     */
+    void evictLocal(Object key);
+
+    /**
+     * Drop all local state of the cache
+     */
+    void clearLocal();
+}
@@ -0,0 +1,73 @@
+package com.example.config.cache;
+
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisClusterConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Incremental key iteration with SCAN, used instead of KEYS so that Redis is never blocked for the whole keyspace.
+ * <p>
+ * In cluster mode every master node is scanned in turn, since a SCAN cursor only covers the node it runs on.
+ * Keys are handed over in batches of at most {@code count} keys; SCAN may return a key more than once if the
+ * keyspace is resized while iterating, so consumers must be idempotent.
+ */
+public class RedisKeyScanner {
+
+    private final int count;
+
+    public RedisKeyScanner(int count) {
+        this.count = count;
+    }
+
+    /**
+     * Scan the keys matching a pattern
+     *
+     * @param connection    Connection to scan with
+     * @param pattern       Glob-style key pattern
+     * @param batchConsumer Receives the matching keys in batches
+     * @return Number of keys handed over
+     */
+    public long scan(RedisConnection connection, byte[] pattern, Consumer<List<byte[]>> batchConsumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+
+        if (connection instanceof JedisClusterConnection clusterConnection) {
+            long scanned = 0;
+            for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                if (node.isMaster()) {
+                    try (Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+                        scanned += drain(cursor, batchConsumer);
+                    }
+                }
+            }
+            return scanned;
+        }
+
+        try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            return drain(cursor, batchConsumer);
+        }
+    }
+
+    private long drain(Cursor<byte[]> cursor, Consumer<List<byte[]>> batchConsumer) {
+        long scanned = 0;
+        List<byte[]> batch = new ArrayList<>(count);
+        while (cursor.hasNext()) {
+            batch.add(cursor.next());
+            if (batch.size() == count) {
+                scanned += batch.size();
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(count);
+            }
+        }
+        if (!batch.isEmpty()) {
+            scanned += batch.size();
+            batchConsumer.accept(batch);
+        }
+        return scanned;
+    }
+}
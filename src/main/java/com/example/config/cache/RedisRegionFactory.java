@@ -0,0 +1,91 @@
+package com.example.config.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hibernate second-level cache regions stored in Redis through the application connection factory.
+ * <p>
+ * Each region is a key namespace {@code <key prefix><region name><separator>} with its own TTL. Regions are keyed by
+ * the plain entity (or collection owner) id, since entity and collection regions are never shared in this
+ * application. The instance is handed to Hibernate through the {@code hibernate.cache.region.factory_class} setting.
+ */
+public class RedisRegionFactory extends RegionFactoryTemplate {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<Object> valueSerializer;
+    private final ScanBatchStrategy cleanStrategy;
+    private final String keyPrefix;
+    private final String keySeparator;
+    private final Function<String, Duration> regionTtl;
+
+    /**
+     * @param connectionFactory Redis connection factory
+     * @param valueSerializer   Serializer of the cache entries
+     * @param cleanStrategy     Strategy clearing a region
+     * @param keyPrefix         Prefix of every region namespace
+     * @param keySeparator      Separator between the region name and the entry key
+     * @param regionTtl         TTL of the entries of a region by region name, null for entries that never expire
+     */
+    public RedisRegionFactory(RedisConnectionFactory connectionFactory, RedisSerializer<Object> valueSerializer,
+                              ScanBatchStrategy cleanStrategy, String keyPrefix, String keySeparator,
+                              Function<String, Duration> regionTtl) {
+        this.connectionFactory = connectionFactory;
+        this.valueSerializer = valueSerializer;
+        this.cleanStrategy = cleanStrategy;
+        this.keyPrefix = keyPrefix;
+        this.keySeparator = keySeparator;
+        this.regionTtl = regionTtl;
+    }
+
+    @Override
+    protected CacheKeysFactory getImplicitCacheKeysFactory() {
+        return SimpleCacheKeysFactory.INSTANCE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return createStorageAccess(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return createStorageAccess(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return createStorageAccess(regionName);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        // The connection factory is managed by Spring
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // The connection factory is managed by Spring
+    }
+
+    private RedisRegionStorageAccess createStorageAccess(String regionName) {
+        return new RedisRegionStorageAccess(regionName, connectionFactory, valueSerializer, cleanStrategy,
+                keyPrefix + regionName + keySeparator, regionTtl.apply(regionName));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Storage of a Hibernate second-level cache region in Redis, one key per cache entry under
+ * {@code <region prefix><key>}.
+ * <p>
+ * Entity and collection keys are the plain ids (see {@link RedisRegionFactory}); other keys, such as query keys, are
+ * replaced by the digest of their serialized form. Redis failures are logged and read as misses, so that the session
+ * falls back to the database; a failed eviction only leaves the entry until its TTL.
+ * <p>
+ * Reads and writes are plain GET/SET, so the regions are meant for {@code NONSTRICT_READ_WRITE}: the soft locks of
+ * {@code READ_WRITE} would be racy across nodes.
+ */
+@Slf4j
+public class RedisRegionStorageAccess implements DomainDataStorageAccess {
+
+    private final String regionName;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<Object> valueSerializer;
+    private final ScanBatchStrategy cleanStrategy;
+    private final String keyPrefix;
+    private final Expiration expiration;
+
+    /**
+     * @param regionName        Hibernate region name
+     * @param connectionFactory Redis connection factory
+     * @param valueSerializer   Serializer of the cache entries, which are {@link Serializable}
+     * @param cleanStrategy     Strategy clearing the region
+     * @param keyPrefix         Prefix of the region keys
+     * @param ttl               TTL of the region entries, null for entries that never expire
+     */
+    public RedisRegionStorageAccess(String regionName, RedisConnectionFactory connectionFactory,
+                                    RedisSerializer<Object> valueSerializer, ScanBatchStrategy cleanStrategy,
+                                    String keyPrefix, Duration ttl) {
+        this.regionName = regionName;
+        this.connectionFactory = connectionFactory;
+        this.valueSerializer = valueSerializer;
+        this.cleanStrategy = cleanStrategy;
+        this.keyPrefix = keyPrefix;
+        this.expiration = ttl != null ? Expiration.from(ttl) : Expiration.persistent();
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return valueSerializer.deserialize(connection.stringCommands().get(redisKey(key)));
+        } catch (Exception e) {
+            log.warn("Error reading key '{}' of cache region '{}': {}", key, regionName, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(redisKey(key), valueSerializer.serialize(value), expiration,
+                    RedisStringCommands.SetOption.upsert());
+        } catch (Exception e) {
+            log.warn("Error writing key '{}' of cache region '{}': {}", key, regionName, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return Boolean.TRUE.equals(connection.keyCommands().exists(redisKey(key)));
+        } catch (Exception e) {
+            log.warn("Error reading key '{}' of cache region '{}': {}", key, regionName, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void evictData() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            long deleted = cleanStrategy.cleanCache(connection, regionName,
+                    (keyPrefix + "*").getBytes(StandardCharsets.UTF_8));
+            log.debug("Cleared {} keys of cache region '{}'", deleted, regionName);
+        } catch (Exception e) {
+            log.warn("Error clearing cache region '{}': {}", regionName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(redisKey(key));
+        } catch (Exception e) {
+            log.warn("Error evicting key '{}' of cache region '{}': {}", key, regionName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void release() {
+        // Connections are owned by the connection factory
+    }
+
+    private byte[] redisKey(Object key) {
+        return (keyPrefix + keyString(key)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String keyString(Object key) {
+        if (key instanceof Number || key instanceof CharSequence || key instanceof UUID) {
+            return key.toString();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(SerializationUtils.serialize(key));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
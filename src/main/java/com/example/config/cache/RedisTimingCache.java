@@ -0,0 +1,99 @@
+package com.example.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator placed directly on the Redis cache, timing the Redis round trips into {@link CacheMetrics}
+ */
+public class RedisTimingCache extends DelegatingCache {
+
+    private final CacheMetrics metrics;
+
+    public RedisTimingCache(Cache delegate, CacheMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long start = System.nanoTime();
+        try {
+            return getDelegate().get(key);
+        } finally {
+            metrics.recordRedisGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        long start = System.nanoTime();
+        try {
+            return getDelegate().get(key, type);
+        } finally {
+            metrics.recordRedisGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Times the lookup and the write-back, leaving out the loader which is timed as a load
+     */
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        long[] loadNanos = new long[1];
+        try {
+            return getDelegate().get(key, () -> {
+                long loadStart = System.nanoTime();
+                try {
+                    return valueLoader.call();
+                } finally {
+                    loadNanos[0] = System.nanoTime() - loadStart;
+                }
+            });
+        } finally {
+            metrics.recordRedisGet(System.nanoTime() - start - loadNanos[0]);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long start = System.nanoTime();
+        try {
+            getDelegate().put(key, value);
+        } finally {
+            metrics.recordRedisPut(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        long start = System.nanoTime();
+        try {
+            return getDelegate().putIfAbsent(key, value);
+        } finally {
+            metrics.recordRedisPut(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        long start = System.nanoTime();
+        try {
+            getDelegate().evict(key);
+        } finally {
+            metrics.recordRedisEvict(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        long start = System.nanoTime();
+        try {
+            return getDelegate().evictIfPresent(key);
+        } finally {
+            metrics.recordRedisEvict(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator refreshing entries in the background instead of making callers wait for a reload.
+ * <p>
+ * Values are stored in a {@link CacheEntry} envelope holding their load time and logical expiry, which is the soft
+ * TTL when one is configured and the cache TTL otherwise. Every read through {@link #get(Object, Callable)} checks
+ * the envelope:
+ * <ul>
+ *     <li>past the soft TTL (but within the Redis, hard, TTL) the stale value is served and a refresh is scheduled
+ *     (stale-while-revalidate);</li>
+ *     <li>before it, the XFetch test refreshes early with a probability growing as expiry approaches, and sooner for
+ *     entries that are expensive to load ({@code now - loadTime * beta * ln(rand) >= expiresAt}).</li>
+ * </ul>
+ * The refresh runs on a bounded executor, inside a read-only transaction, and the caller is served the current value
+ * without waiting. It does not reuse the caller's loader, which belongs to an invocation that has returned by then:
+ * it calls the cached method again, as captured by {@link ReloadingCacheResolver}. Lookups without a captured method
+ * refresh in the caller's thread instead. Entries written without a load (puts, warmup) use the average observed
+ * load time.
+ * <p>
+ * The refreshed value is written with a compare-and-set script, only while the key still holds the entry that
+ * triggered the refresh. A write evicting the key during the refresh therefore wins, instead of getting the value
+ * loaded before it written back.
+ * <p>
+ * Refresh loads are timed into {@link CacheMetrics} by this layer, apart from the loads of missing entries.
+ * <p>
+ * Values stored without an envelope, e.g. before early refresh was enabled, are returned as is.
+ */
+@Slf4j
+public class RefreshingCache extends DelegatingCache {
+
+    // KEYS[1] = cache key, ARGV[1] = expected value, ARGV[2] = new value, ARGV[3] = TTL in ms (0 = none)
+    // Package-private so that tests can run it without Lua
+    static final byte[] WRITE_IF_UNCHANGED = """
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            if tonumber(ARGV[3]) > 0 then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            else
+                redis.call('SET', KEYS[1], ARGV[2])
+            end
+            return 1""".getBytes(StandardCharsets.UTF_8);
+
+    // Reload of the cached method invoked on the current thread, see ReloadingCacheResolver
+    private static final ThreadLocal<Callable<?>> INVOCATION_RELOAD = new ThreadLocal<>();
+    // Set while the caller's loader runs for a refresh, until InstrumentedCache takes it
+    private static final ThreadLocal<Boolean> REFRESHING = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Duration freshTtl;
+    private final double beta;
+    private final Executor executor;
+    private final TransactionOperations transactionOperations;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration configuration;
+    private final CacheMetrics metrics;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private volatile double averageLoadMillis;
+
+    /**
+     * @param delegate              Cache to decorate
+     * @param enabled               Whether values are stored in an envelope and refreshed, false passes through
+     * @param freshTtl              How long a loaded value is served without refresh (soft TTL or cache TTL)
+     * @param beta                  XFetch aggressiveness, 0 disables early refresh
+     * @param executor              Executor running the refreshes
+     * @param transactionOperations Transaction the refreshes run in
+     * @param configuration         Configuration of the decorated Redis cache, to write refreshed entries
+     * @param connectionFactory     Redis connection factory
+     * @param metrics               Metrics of the cache, recording the refresh loads
+     */
+    public RefreshingCache(Cache delegate, boolean enabled, Duration freshTtl, double beta,
+                           Executor executor, TransactionOperations transactionOperations,
+                           RedisCacheConfiguration configuration, RedisConnectionFactory connectionFactory,
+                           CacheMetrics metrics) {
+        super(delegate);
+        this.enabled = enabled;
+        this.freshTtl = freshTtl;
+        this.beta = beta;
+        this.executor = executor;
+        this.transactionOperations = transactionOperations;
+        this.configuration = configuration;
+        this.connectionFactory = connectionFactory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Run a cache lookup with the reload of the invoked cached method available to the refreshes it triggers
+     *
+     * @param reload Calls the cached method again, with the same target and arguments
+     * @param lookup Cache lookup
+     * @return Result of the lookup
+     */
+    public static <T> T withReload(Callable<?> reload, Supplier<T> lookup) {
+        Callable<?> previous = INVOCATION_RELOAD.get();
+        INVOCATION_RELOAD.set(reload);
+        try {
+            return lookup.get();
+        } finally {
+            if (previous != null) {
+                INVOCATION_RELOAD.set(previous);
+            } else {
+                INVOCATION_RELOAD.remove();
+            }
+        }
+    }
+
+    /**
+     * Whether the loader running on the current thread was called for a refresh, clearing the flag so that the cache
+     * lookups made by the loader itself are not taken for refreshes
+     */
+    public static boolean takeRefresh() {
+        boolean refreshing = Boolean.TRUE.equals(REFRESHING.get());
+        REFRESHING.remove();
+        return refreshing;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return unwrap(getDelegate().get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!enabled) {
+            return (T) unwrapValue(getDelegate().get(key, valueLoader));
+        }
+
+        Callable<?> reload = INVOCATION_RELOAD.get();
+        boolean[] loaded = new boolean[1];
+        Object stored = getDelegate().get(key, () -> {
+            loaded[0] = true;
+            return load(valueLoader);
+        });
+        if (stored instanceof CacheEntry entry) {
+            // An entry this lookup just loaded is never refreshed again
+            if (loaded[0] || !isDueForRefresh(entry)) {
+                return (T) entry.value();
+            }
+            if (reload != null) {
+                scheduleRefresh(key, entry, reload);
+                return (T) entry.value();
+            }
+            // No cached method to call later, the caller's loader is only valid now
+            REFRESHING.set(Boolean.TRUE);
+            CacheEntry refreshed;
+            try {
+                refreshed = refresh(key, valueLoader);
+            } finally {
+                REFRESHING.remove();
+            }
+            writeIfUnchanged(key, entry, refreshed);
+            return (T) refreshed.value();
+        }
+        return (T) stored;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return getDelegate().retrieve(key).thenApply(result ->
+                result instanceof ValueWrapper wrapper ? unwrap(wrapper) : unwrapValue(result));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        if (!enabled) {
+            return getDelegate().retrieve(key, valueLoader).thenApply(value -> (T) unwrapValue(value));
+        }
+        return getDelegate().<Object>retrieve(key, () -> valueLoader.get().thenApply(this::wrap))
+                .thenApply(value -> (T) unwrapValue(value));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getDelegate().put(key, wrap(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return unwrap(getDelegate().putIfAbsent(key, wrap(value)));
+    }
+
+    /**
+     * Wrap a value the way this cache stores it, for callers writing to Redis directly
+     */
+    public Object wrap(Object value) {
+        return enabled ? new CacheEntry(value, Math.round(averageLoadMillis), System.currentTimeMillis() + freshTtl.toMillis()) : value;
+    }
+
+    /**
+     * Get the value held by a stored object, which may or may not be a {@link CacheEntry}
+     */
+    public static Object unwrapValue(Object stored) {
+        return stored instanceof CacheEntry entry ? entry.value() : stored;
+    }
+
+    private static ValueWrapper unwrap(ValueWrapper wrapper) {
+        return wrapper != null && wrapper.get() instanceof CacheEntry entry ? new SimpleValueWrapper(entry.value()) : wrapper;
+    }
+
+    private CacheEntry load(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        long loadMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        // Exponentially weighted, so that the estimate follows the current database latency
+        averageLoadMillis = averageLoadMillis == 0 ? loadMillis : averageLoadMillis * 0.9 + loadMillis * 0.1;
+        return new CacheEntry(value, loadMillis, System.currentTimeMillis() + freshTtl.toMillis());
+    }
+
+    private boolean isDueForRefresh(CacheEntry entry) {
+        long now = System.currentTimeMillis();
+        if (now >= entry.expiresAt()) {
+            return true;
+        }
+        if (beta <= 0 || entry.loadMillis() <= 0) {
+            return false;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - entry.loadMillis() * beta * Math.log(random) >= entry.expiresAt();
+    }
+
+    private CacheEntry loadOrThrow(Object key, Callable<?> valueLoader) {
+        try {
+            return load(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private CacheEntry refresh(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            CacheEntry refreshed = loadOrThrow(key, valueLoader);
+            success = true;
+            return refreshed;
+        } finally {
+            metrics.recordRefreshLoad(System.nanoTime() - start, success);
+        }
+    }
+
+    private void scheduleRefresh(Object key, CacheEntry entry, Callable<?> reload) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    CacheEntry refreshed = transactionOperations.execute(status -> refresh(key, reload));
+                    if (writeIfUnchanged(key, entry, refreshed)) {
+                        log.debug("Refreshed key '{}' in cache '{}' in the background", key, getName());
+                    }
+                } catch (Exception e) {
+                    // The entry keeps being served until its hard TTL
+                    log.warn("Error refreshing key '{}' in cache '{}': {}", key, getName(), e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("Refresh of key '{}' in cache '{}' skipped, executor saturated", key, getName());
+        }
+    }
+
+    /**
+     * Write a refreshed entry if the key still holds the entry whose refresh produced it
+     *
+     * @return Whether the entry was written
+     */
+    private boolean writeIfUnchanged(Object key, CacheEntry previous, CacheEntry refreshed) {
+        String redisKey = configuration.getKeyPrefixFor(getName()) + key;
+        byte[] rawKey = ByteUtils.getBytes(configuration.getKeySerializationPair().write(redisKey));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            byte[] current = connection.stringCommands().get(rawKey);
+            if (current == null || !isSameEntry(configuration.getValueSerializationPair().read(ByteBuffer.wrap(current)), previous)) {
+                log.debug("Key '{}' in cache '{}' changed during its refresh, refreshed value dropped", key, getName());
+                return false;
+            }
+
+            byte[] rawValue = ByteUtils.getBytes(configuration.getValueSerializationPair().write(refreshed));
+            Duration ttl = configuration.getTtlFunction().getTimeToLive(key, refreshed);
+            long ttlMillis = ttl != null && !ttl.isNegative() ? ttl.toMillis() : 0;
+            Long written = connection.scriptingCommands().eval(WRITE_IF_UNCHANGED, ReturnType.INTEGER, 1,
+                    rawKey, current, rawValue, String.valueOf(ttlMillis).getBytes(StandardCharsets.UTF_8));
+            if (written == null || written == 0) {
+                log.debug("Key '{}' in cache '{}' changed during its refresh, refreshed value dropped", key, getName());
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Error writing refreshed key '{}' in cache '{}': {}", key, getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isSameEntry(Object stored, CacheEntry entry) {
+        return stored instanceof CacheEntry other
+                && other.loadMillis() == entry.loadMillis()
+                && other.expiresAt() == entry.expiresAt();
+    }
+}
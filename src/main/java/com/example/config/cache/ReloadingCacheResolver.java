@@ -0,0 +1,85 @@
+package com.example.config.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache resolver capturing how to call a cached method again.
+ * <p>
+ * The loader Spring hands to {@link Cache#get(Object, Callable)} proceeds with the caller's method invocation, which
+ * must not run again once the caller has returned. For {@code @Cacheable} operations the resolved caches are wrapped
+ * so that their lookups carry a reload of the target bean method with a copy of the arguments, which
+ * {@link RefreshingCache} runs for background refreshes.
+ */
+public class ReloadingCacheResolver extends SimpleCacheResolver {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    /**
+     * @param cacheManager Cache manager, looked up on first use since the resolver is created before it
+     */
+    public ReloadingCacheResolver(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager.getObject();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // The cache manager is resolved lazily
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> caches = super.resolveCaches(context);
+        if (!(context.getOperation() instanceof CacheableOperation)) {
+            return caches;
+        }
+
+        Callable<Object> reload = createReload(context.getTarget(), context.getMethod(), context.getArgs().clone());
+        return caches.stream().map(cache -> new InvocationCache(cache, reload)).toList();
+    }
+
+    private static Callable<Object> createReload(Object target, Method method, Object[] args) {
+        ReflectionUtils.makeAccessible(method);
+        return () -> {
+            try {
+                return ObjectUtils.unwrapOptional(method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        };
+    }
+
+    /**
+     * Cache of a single invocation, exposing its reload to the lookups
+     */
+    private static final class InvocationCache extends DelegatingCache {
+
+        private final Callable<Object> reload;
+
+        private InvocationCache(Cache delegate, Callable<Object> reload) {
+            super(delegate);
+            this.reload = reload;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return RefreshingCache.withReload(reload, () -> getDelegate().get(key, valueLoader));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.config.cache;
+
+import org.springframework.data.redis.cache.BatchStrategy;
+import org.springframework.data.redis.connection.RedisConnection;
+
+/**
+ * Cache clean strategy unlinking the keys of a cache in SCAN batches, so that memory is reclaimed asynchronously.
+ * <p>
+ * Unlike {@link org.springframework.data.redis.cache.BatchStrategies#scan(int)}, which relies on a single SCAN cursor
+ * and is therefore not supported in cluster mode, every master node is scanned through {@link RedisKeyScanner}.
+ */
+public class ScanBatchStrategy implements BatchStrategy {
+
+    private final RedisKeyScanner scanner;
+
+    public ScanBatchStrategy(RedisKeyScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public long cleanCache(RedisConnection connection, String name, byte[] pattern) {
+        long[] deleted = new long[1];
+        scanner.scan(connection, pattern, keys -> {
+            Long count = connection.keyCommands().unlink(keys.toArray(byte[][]::new));
+            deleted[0] += count != null ? count : 0;
+        });
+        return deleted[0];
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator keeping a bounded in-process (L1) copy of entries in front of the Redis (L2) cache.
+ * <p>
+ * Reads are served from L1 when possible and fall back to Redis. Evictions are applied to both tiers
+ * and broadcast so that the other application nodes drop their L1 copy as well. Cached values are shared
+ * between callers and must be treated as immutable.
+ */
+public class TwoTierCache extends DelegatingCache implements LocalInvalidationTarget {
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> localCache;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    public TwoTierCache(Cache delegate, Duration localTtl, long maxWeight, CacheInvalidationBroadcaster broadcaster) {
+        super(delegate);
+        this.broadcaster = broadcaster;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().expireAfterWrite(localTtl);
+        if (maxWeight > 0) {
+            builder.maximumWeight(maxWeight).weigher(TwoTierCache::weigh);
+        }
+        this.localCache = builder.build();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper local = localCache.getIfPresent(key);
+        if (local != null) {
+            return local;
+        }
+
+        ValueWrapper remote = getDelegate().get(key);
+        if (remote != null) {
+            localCache.put(key, new SimpleValueWrapper(remote.get()));
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper local = localCache.getIfPresent(key);
+        if (local != null) {
+            return (T) local.get();
+        }
+
+        T value = getDelegate().get(key, valueLoader);
+        localCache.put(key, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getDelegate().put(key, value);
+        localCache.put(key, new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = getDelegate().putIfAbsent(key, value);
+        localCache.invalidate(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        getDelegate().evict(key);
+        localCache.invalidate(key);
+        broadcaster.publishEvict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = getDelegate().evictIfPresent(key);
+        localCache.invalidate(key);
+        broadcaster.publishEvict(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        getDelegate().clear();
+        localCache.invalidateAll();
+        broadcaster.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = getDelegate().invalidate();
+        localCache.invalidateAll();
+        broadcaster.publishClear(getName());
+        return invalidated;
+    }
+
+    /**
+     * Drop the L1 copy of a single entry, leaving Redis untouched
+     */
+    @Override
+    public void evictLocal(Object key) {
+        localCache.invalidate(key);
+    }
+
+    /**
+     * Drop every L1 entry of this cache, leaving Redis untouched
+     */
+    @Override
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    /**
+     * Drop every L1 entry of this cache on all nodes, leaving Redis untouched, e.g. after keys were removed from
+     * Redis directly
+     */
+    public void clearLocalEverywhere() {
+        localCache.invalidateAll();
+        broadcaster.publishClear(getName());
+    }
+
+    /**
+     * Drop the L1 copies of several entries on all nodes with a single broadcast, leaving Redis untouched, e.g.
+     * after they were written to Redis directly
+     */
+    public void evictLocalEverywhere(Collection<?> keys) {
+        localCache.invalidateAll(keys);
+        broadcaster.publishEvictAll(getName(), keys);
+    }
+
+    /**
+     * Get the L1 copy of an entry without falling back to Redis
+     */
+    public ValueWrapper getLocal(Object key) {
+        return localCache.getIfPresent(key);
+    }
+
+    /**
+     * Store an entry in L1 only, e.g. after it was read from Redis outside of this cache
+     */
+    public void putLocal(Object key, Object value) {
+        localCache.put(key, new SimpleValueWrapper(value));
+    }
+
+    /**
+     * Get the number of entries currently held in L1
+     */
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    // Collections (e.g. "all" lists) weigh as many units as they hold elements, everything else weighs one unit
+    private static int weigh(Object key, ValueWrapper wrapper) {
+        Object value = wrapper.get();
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    }
+}
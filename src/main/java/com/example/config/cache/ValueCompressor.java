@@ -0,0 +1,23 @@
+package com.example.config.cache;
+
+/**
+ * Compression algorithm applied to serialized cache values by {@link CompressingRedisSerializer}
+ */
+public interface ValueCompressor {
+
+    /**
+     * Algorithm id written in the value header, unique among the compressors
+     */
+    byte getId();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * Decompress data produced by {@link #compress(byte[])}
+     *
+     * @param data           Compressed bytes
+     * @param offset         Offset of the compressed bytes in {@code data}
+     * @param originalLength Length of the uncompressed value
+     */
+    byte[] decompress(byte[] data, int offset, int originalLength);
+}
@@ -1,5 +1,7 @@
 package com.example.config.properties;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -7,10 +9,13 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration properties for Redis connection and caching
@@ -171,6 +176,8 @@ public class RedisProperties {
     @Getter
     @Setter
     public static class Cache {
+        private static final CacheSpec DEFAULT_CACHE_SPEC = new CacheSpec();
+
         /**
          * Default cache TTL (Time To Live)
          */
@@ -191,10 +198,298 @@ public class RedisProperties {
          */
         private boolean cacheNullValues = true;
 
+        /**
+         * Default cache value codec: json, smile or cbor
+         */
+        @NotBlank
+        private String codec = "json";
+
+        /**
+         * Default compression of large cache values
+         */
+        private Compression compression = new Compression();
+
+        /**
+         * Whether concurrent loads of the same key share a single loader call per JVM ({@code @Cacheable(sync = true)})
+         */
+        private boolean coalesceLoads = true;
+
+        /**
+         * Number of threads refreshing cache entries in the background
+         */
+        @Min(1)
+        private int refreshThreads = 2;
+
+        /**
+         * Maximum number of pending background refreshes, further refreshes are skipped
+         */
+        @Min(0)
+        private int refreshQueueCapacity = 200;
+
+        /**
+         * Number of commands sent per pipeline round trip by bulk cache operations
+         */
+        @Min(1)
+        private int batchSize = 500;
+
+        /**
+         * Key (appended to the key prefix) under which the per-cache size estimates are maintained
+         */
+        private String sizeEstimateKey = "cache_size";
+
+        /**
+         * Interval between two additions of the written keys to the size estimates
+         */
+        private Duration sizeEstimateFlushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Written keys buffered per cache between two additions to the size estimates, further keys are dropped
+         */
+        @Min(16)
+        private int sizeEstimateBufferSize = 10_000;
+
+        /**
+         * Key (appended to the key prefix) under which the generation numbers of list caches are kept
+         */
+        private String generationKey = "cache_generation";
+
+        /**
+         * How long each node reuses a list cache generation number before reading it again from Redis
+         */
+        private Duration generationLocalTtl = Duration.ofSeconds(5);
+
+        /**
+         * In-process (L1) cache configuration
+         */
+        private Local local = new Local();
+
+        /**
+         * Pattern invalidation configuration
+         */
+        private Invalidation invalidation = new Invalidation();
+
+        /**
+         * Hot key detection configuration
+         */
+        private HotKeys hotKeys = new HotKeys();
+
         /**
          * Entity-specific cache configurations
          */
         private EntityCache entities = new EntityCache();
+
+        /**
+         * Hibernate second-level cache configuration
+         */
+        private SecondLevel secondLevel = new SecondLevel();
+
+        /**
+         * Per-cache settings by cache name (use bracket notation for names containing underscores,
+         * e.g. {@code "[article_by_path]"})
+         */
+        private Map<String, CacheSpec> caches = new HashMap<>();
+
+        /**
+         * Get the settings of a cache, falling back to defaults for caches without specific settings
+         */
+        public CacheSpec getCacheSpec(String cacheName) {
+            return caches.getOrDefault(cacheName, DEFAULT_CACHE_SPEC);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        /**
+         * Distributed lease protecting the cache against stampedes across nodes
+         */
+        private Lease lease = new Lease();
+
+        /**
+         * Probabilistic early refresh of entries approaching expiry
+         */
+        private EarlyRefresh earlyRefresh = new EarlyRefresh();
+
+        /**
+         * Soft TTL: past it, entries are served stale while being refreshed in the background, until the cache
+         * (hard) TTL removes them from Redis. Must be shorter than the cache TTL (null = disabled)
+         */
+        private Duration softTtl;
+
+        /**
+         * Value codec of this cache (null = the default codec)
+         */
+        private String codec;
+
+        /**
+         * Compression of large values of this cache (null = the default compression)
+         */
+        private Compression compression;
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+        /**
+         * Whether serialized values reaching the threshold are compressed
+         */
+        private boolean enabled = false;
+
+        /**
+         * Compression algorithm: LZ4 (fastest) or DEFLATE (JDK, better ratio)
+         */
+        @NotNull
+        private CompressionAlgorithm algorithm = CompressionAlgorithm.LZ4;
+
+        /**
+         * Minimum serialized size of a value to be compressed
+         */
+        @NotNull
+        private DataSize threshold = DataSize.ofKilobytes(1);
+
+        /**
+         * Maximum serialized size of a compressed value: larger values are stored uncompressed, and a stored header
+         * claiming more is rejected instead of allocating the decompression buffer
+         */
+        @NotNull
+        private DataSize maxValueSize = DataSize.ofMegabytes(64);
+    }
+
+    @Getter
+    @Setter
+    public static class EarlyRefresh {
+        /**
+         * Whether entries are stored with their load time and expiry and refreshed in the background before expiring
+         */
+        private boolean enabled = false;
+
+        /**
+         * XFetch aggressiveness: values above 1 refresh earlier, below 1 later (0 = never refresh early)
+         */
+        @Min(0)
+        private double beta = 1.0;
+    }
+
+    @Getter
+    @Setter
+    public static class Lease {
+        /**
+         * Whether a single node at a time may load a missing entry
+         */
+        private boolean enabled = false;
+
+        /**
+         * Lease duration, should cover the load time of an entry
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+
+        /**
+         * How long other nodes wait for the lease holder's value before loading it themselves (without caching it)
+         */
+        private Duration waitTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Interval between cache reads while waiting for the lease holder
+         */
+        private Duration pollInterval = Duration.ofMillis(50);
+    }
+
+    @Getter
+    @Setter
+    public static class Local {
+        /**
+         * Whether to keep a bounded in-process (L1) copy of cache entries in front of Redis
+         */
+        private boolean enabled = true;
+
+        /**
+         * Pub/sub channel (appended to the key prefix) used to broadcast L1 invalidations to other nodes
+         */
+        private String invalidationChannel = "cache_invalidation";
+    }
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+        /**
+         * Maximum number of keys unlinked per second by pattern invalidation (0 = unlimited)
+         */
+        @Min(0)
+        private int maxKeysPerSecond = 10000;
+
+        /**
+         * Interval between progress reports of a running pattern invalidation
+         */
+        private Duration progressInterval = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class HotKeys {
+        /**
+         * Whether cache reads are sampled to detect hot keys
+         */
+        private boolean enabled = true;
+
+        /**
+         * Fraction of cache reads sampled
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double samplingRatio = 0.1;
+
+        /**
+         * Number of hot keys kept per cache
+         */
+        @Min(1)
+        private int topK = 20;
+
+        /**
+         * Period after which the access counts are halved
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Count-min sketch counters per row, more counters mean less overcounting
+         */
+        @Min(16)
+        private int sketchWidth = 2048;
+
+        /**
+         * Count-min sketch rows, more rows mean a lower probability of overcounting
+         */
+        @Min(1)
+        private int sketchDepth = 4;
+
+        /**
+         * Sampled reads buffered between two drains, older samples are dropped when full
+         */
+        @Min(16)
+        private int bufferSize = 4096;
+
+        /**
+         * Interval between two drains of the sample buffer into the sketch
+         */
+        private Duration drainInterval = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class SecondLevel {
+        /**
+         * Whether Hibernate caches entities, collections and cacheable query results in Redis
+         */
+        private boolean enabled = true;
+
+        /**
+         * Key (appended to the key prefix) under which the second-level cache regions are namespaced
+         */
+        private String regionPrefix = "l2";
+
+        /**
+         * TTL of cached query results, entity and collection regions use the TTL of their entity
+         */
+        private Duration queryTtl = Duration.ofMinutes(10);
     }
 
     @Getter
@@ -220,15 +515,26 @@ public class RedisProperties {
         private Duration ttl;
 
         /**
-         * Maximum number of cached items (0 = unlimited)
+         * Maximum weight of the in-process (L1) cache, one unit per item and one per element
+         * for collection values (0 = unlimited)
          */
         private int maxSize = 1000;
 
+        /**
+         * TTL of the in-process (L1) copy, should stay well below the Redis TTL
+         */
+        private Duration localTtl = Duration.ofMinutes(1);
+
         /**
          * Whether to enable cache warming on startup
          */
         private boolean warmupOnStartup = false;
 
+        /**
+         * TTL of cached search totals, which are not evicted on writes and may be off by the writes made meanwhile
+         */
+        private Duration countTtl = Duration.ofSeconds(30);
+
         public EntityCacheConfig() {
             this.ttl = Duration.ofHours(1);
         }
@@ -305,6 +611,10 @@ public class RedisProperties {
         STANDALONE, CLUSTER
     }
 
+    public enum CompressionAlgorithm {
+        DEFLATE, LZ4
+    }
+
     /**
      * Get cluster nodes as a list
      */
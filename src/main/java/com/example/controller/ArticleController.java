@@ -0,0 +1,28 @@
+package com.example.controller;
+
+import com.example.common.response.BaseResponse;
+import com.example.model.dto.ArticleDTO;
+import com.example.service.ArticleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/articles")
+@RequiredArgsConstructor
+public class ArticleController {
+
+    private final ArticleService articleService;
+
+    @GetMapping("/search/text")
+    public ResponseEntity<BaseResponse<List<ArticleDTO>>> searchText(@RequestParam String q,
+                                                                     @RequestParam(defaultValue = "20") int size) {
+        List<ArticleDTO> lstDto = articleService.searchText(q, size);
+        return ResponseEntity.ok(BaseResponse.success(lstDto));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.controller;
+
+import com.example.common.response.PaginatedResponse;
+import com.example.model.dto.ArticleSummaryDTO;
+import com.example.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    @GetMapping("/{id}/articles")
+    public ResponseEntity<PaginatedResponse<ArticleSummaryDTO>> getArticles(@PathVariable Long id, Pageable pageable) {
+        return ResponseEntity.ok(PaginatedResponse.of(categoryService.findArticles(id, pageable)));
+    }
+}
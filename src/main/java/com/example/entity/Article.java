@@ -1,14 +1,19 @@
 package com.example.entity;
 
+import com.example.config.CacheConfig;
 import com.example.model.enumeration.ArticleStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "article")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheConfig.CacheNames.ARTICLE_ENTITY)
 public class Article extends BaseEntity {
 
     @Column(unique = true, nullable = false)
@@ -1,9 +1,13 @@
 package com.example.entity;
 
+import com.example.config.CacheConfig;
 import com.example.model.enumeration.CategoryStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +16,8 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheConfig.CacheNames.CATEGORY_ENTITY)
 public class Category extends BaseEntity {
 
     @Column(unique = true, nullable = false)
@@ -20,7 +26,10 @@ public class Category extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String path;
 
+    // Initializes the collections of up to 50 loaded categories per query
     @OneToMany(mappedBy = "category")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheConfig.CacheNames.CATEGORY_ARTICLES)
     private List<Article> articles = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
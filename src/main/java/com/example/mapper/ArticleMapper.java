@@ -9,10 +9,13 @@ import org.mapstruct.Mapping;
 @Mapper(componentModel = "spring")
 public interface ArticleMapper extends EntityMapper<ArticleDTO, Article> {
 
-    // Avoid circular reference
+    // The category is resolved by the service from categoryId
     @Mapping(target = "category", ignore = true)
     Article toEntity(ArticleDTO dto);
 
-    @Mapping(target = "category", ignore = true)
+    // Flattened category, fetched along with the articles (see ArticleQueryService#fetchCategory)
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.name")
+    @Mapping(target = "categoryPath", source = "category.path")
     ArticleDTO toDTO(Article entity);
 }
@@ -6,12 +6,15 @@ import com.example.model.dto.CategoryDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", uses = {ArticleMapper.class})
+@Mapper(componentModel = "spring")
 public interface CategoryMapper extends EntityMapper<CategoryDTO, Category> {
 
-    @Mapping(target = "articles", source = "articles")
+    // Filled by the service for a whole list at once, without loading the article collection
+    @Mapping(target = "articleCount", ignore = true)
+    @Mapping(target = "articles", ignore = true)
     CategoryDTO toDTO(Category entity);
 
-    @Mapping(target = "articles", source = "articles")
+    // Articles are owned by their side of the association
+    @Mapping(target = "articles", ignore = true)
     Category toEntity(CategoryDTO dto);
 }
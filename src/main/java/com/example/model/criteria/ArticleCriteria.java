@@ -17,6 +17,10 @@ public class ArticleCriteria extends BaseCriteria {
     private StringFilter name;
     private StringFilter path;
     private Filter<ArticleStatus> status;
+    /**
+     * Full-text search in the name, summary and content, only {@code contains} is supported
+     */
+    private StringFilter text;
 
     @Override
     protected ArticleCriteria doCopy() {
@@ -24,6 +28,7 @@ public class ArticleCriteria extends BaseCriteria {
         copy.setName(name == null ? null : name.copy());
         copy.setPath(path == null ? null : path.copy());
         copy.setStatus(status == null ? null : status.copy());
+        copy.setText(text == null ? null : text.copy());
         return copy;
     }
 }
@@ -1,7 +1,6 @@
 package com.example.model.dto;
 
 import com.example.common.dto.BaseDTO;
-import com.example.entity.Category;
 import com.example.model.enumeration.ArticleStatus;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -17,6 +16,8 @@ public class ArticleDTO extends BaseDTO {
     private String path;
     private String summary;
     private String content;
-    private Category category;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryPath;
     private ArticleStatus status;
 }
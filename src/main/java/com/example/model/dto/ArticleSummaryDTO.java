@@ -0,0 +1,21 @@
+package com.example.model.dto;
+
+import com.example.model.enumeration.ArticleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Article listed under its category, without its summary and content
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleSummaryDTO {
+    private Long id;
+    private String name;
+    private String path;
+    private ArticleStatus status;
+}
@@ -1,7 +1,6 @@
 package com.example.model.dto;
 
 import com.example.common.dto.BaseDTO;
-import com.example.entity.Article;
 import com.example.model.enumeration.CategoryStatus;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -17,6 +16,10 @@ import java.util.List;
 public class CategoryDTO extends BaseDTO {
     private String name;
     private String path;
-    private List<Article> articles;
+    private Long articleCount;
+    /**
+     * Latest articles of the category, see {@code GET /api/categories/{id}/articles} for all of them
+     */
+    private List<ArticleSummaryDTO> articles;
     private CategoryStatus status;
-}
\ No newline at end of file
+}
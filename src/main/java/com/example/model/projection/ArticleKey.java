@@ -0,0 +1,11 @@
+package com.example.model.projection;
+
+/**
+ * Cache keys of an article
+ *
+ * @param id   Article id
+ * @param name Article name
+ * @param path Article path
+ */
+public record ArticleKey(Long id, String name, String path) {
+}
@@ -0,0 +1,12 @@
+package com.example.model.projection;
+
+/**
+ * Searchable text of an article
+ *
+ * @param id      Article id
+ * @param name    Article name
+ * @param summary Article summary
+ * @param content Article content
+ */
+public record ArticleText(Long id, String name, String summary, String content) {
+}
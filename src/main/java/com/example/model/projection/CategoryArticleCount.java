@@ -0,0 +1,10 @@
+package com.example.model.projection;
+
+/**
+ * Number of articles of a category
+ *
+ * @param categoryId Category id
+ * @param count      Number of articles
+ */
+public record CategoryArticleCount(Long categoryId, Long count) {
+}
@@ -2,14 +2,66 @@ package com.example.repository;
 
 import com.example.common.repository.BaseRepository;
 import com.example.entity.Article;
+import com.example.entity.Article_;
+import com.example.entity.Category;
+import com.example.model.dto.ArticleSummaryDTO;
+import com.example.model.projection.ArticleKey;
+import com.example.model.projection.ArticleText;
+import com.example.model.projection.CategoryArticleCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ArticleRepository extends BaseRepository<Article> {
+public interface ArticleRepository extends BaseRepository<Article>, ArticleRepositoryCustom {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Article> findByName(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Article> findByPath(String path);
+
+    // Lists fetch the category, which article DTOs carry
+
+    @Override
+    @EntityGraph(attributePaths = Article_.CATEGORY)
+    List<Article> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = Article_.CATEGORY)
+    List<Article> findByCreatedBy(String createdBy);
+
+    @Override
+    @EntityGraph(attributePaths = Article_.CATEGORY)
+    List<Article> findByCreatedAtBetween(Instant start, Instant end);
+
+    @Query("SELECT new com.example.model.projection.ArticleText(a.id, a.name, a.summary, a.content) FROM Article a WHERE a.id = :id")
+    Optional<ArticleText> findTextById(Long id);
+
+    @Query("SELECT new com.example.model.projection.ArticleText(a.id, a.name, a.summary, a.content) FROM Article a WHERE a.id > :afterId ORDER BY a.id")
+    List<ArticleText> findTextAfter(Long afterId, Limit limit);
+
+    @Query("SELECT new com.example.model.projection.ArticleKey(a.id, a.name, a.path) FROM Article a WHERE a.category.id = :categoryId")
+    List<ArticleKey> findKeysByCategoryId(Long categoryId);
+
+    @Query("SELECT a.category FROM Article a WHERE a.id = :id")
+    Optional<Category> findCategoryById(Long id);
+
+    @Query("SELECT new com.example.model.projection.CategoryArticleCount(a.category.id, COUNT(a)) FROM Article a WHERE a.category.id IN :categoryIds GROUP BY a.category.id")
+    List<CategoryArticleCount> countByCategoryIds(Collection<Long> categoryIds);
+
+    @Query(value = "SELECT new com.example.model.dto.ArticleSummaryDTO(a.id, a.name, a.path, a.status) FROM Article a WHERE a.category.id = :categoryId",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.category.id = :categoryId")
+    Page<ArticleSummaryDTO> findSummariesByCategoryId(Long categoryId, Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import com.example.model.dto.ArticleSummaryDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Article queries written against the entity manager, implemented by {@link ArticleRepositoryCustomImpl}
+ */
+public interface ArticleRepositoryCustom {
+
+    /**
+     * Latest articles of each category, newest first
+     *
+     * @param categoryIds Category ids
+     * @param limit       Maximum number of articles per category
+     * @return Articles by category id, categories without articles are absent
+     */
+    Map<Long, List<ArticleSummaryDTO>> findLatestSummariesByCategoryIds(Collection<Long> categoryIds, int limit);
+}
@@ -0,0 +1,46 @@
+package com.example.repository;
+
+import com.example.model.dto.ArticleSummaryDTO;
+import com.example.model.enumeration.ArticleStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ArticleRepositoryCustomImpl implements ArticleRepositoryCustom {
+
+    // Numbered within each category so that every category is cut at the limit by a single query
+    private static final String LATEST_SUMMARIES_QUERY = """
+            SELECT s.categoryId, s.id, s.name, s.path, s.status
+            FROM (SELECT a.category.id AS categoryId, a.id AS id, a.name AS name, a.path AS path, a.status AS status,
+                         ROW_NUMBER() OVER (PARTITION BY a.category.id ORDER BY a.id DESC) AS rowNumber
+                  FROM Article a
+                  WHERE a.category.id IN :categoryIds) s
+            WHERE s.rowNumber <= :limit
+            ORDER BY s.categoryId, s.rowNumber""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Long, List<ArticleSummaryDTO>> findLatestSummariesByCategoryIds(Collection<Long> categoryIds, int limit) {
+        Map<Long, List<ArticleSummaryDTO>> summaries = new HashMap<>();
+        if (categoryIds.isEmpty()) {
+            return summaries;
+        }
+
+        List<Object[]> rows = entityManager.createQuery(LATEST_SUMMARIES_QUERY, Object[].class)
+                .setParameter("categoryIds", categoryIds)
+                .setParameter("limit", (long) limit)
+                .getResultList();
+        for (Object[] row : rows) {
+            summaries.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new ArticleSummaryDTO((Long) row[1], (String) row[2], (String) row[3], (ArticleStatus) row[4]));
+        }
+        return summaries;
+    }
+}
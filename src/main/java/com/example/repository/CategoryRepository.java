@@ -2,6 +2,9 @@ package com.example.repository;
 
 import com.example.common.repository.BaseRepository;
 import com.example.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,7 +12,9 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends BaseRepository<Category> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByName(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByPath(String path);
 }
\ No newline at end of file
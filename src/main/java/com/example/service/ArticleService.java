@@ -1,34 +1,63 @@
 package com.example.service;
 
+import com.example.common.exception.BusinessValidationException;
+import com.example.common.exception.RequestValidationException;
 import com.example.common.exception.ResourceNotFoundException;
+import com.example.common.pagination.CursorPage;
 import com.example.common.repository.BaseRepository;
 import com.example.common.service.BaseQueryService;
 import com.example.common.service.BaseServiceImpl;
 import com.example.config.CacheConfig;
 import com.example.entity.Article;
+import com.example.entity.Article_;
+import com.example.entity.BaseEntity_;
+import com.example.entity.Category;
 import com.example.mapper.ArticleMapper;
 import com.example.model.criteria.ArticleCriteria;
 import com.example.model.dto.ArticleDTO;
+import com.example.model.dto.PartialUpdateDTO;
 import com.example.repository.ArticleRepository;
+import com.example.repository.CategoryRepository;
+import com.example.service.cache.CacheInvalidationService;
+import com.example.service.cache.SearchPageCache;
 import com.example.service.query.ArticleQueryService;
+import com.example.service.search.ArticleSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, ArticleCriteria> {
 
+    private static final int MAX_TEXT_SEARCH_SIZE = 100;
+
     private final ArticleRepository repository;
     private final ArticleQueryService queryService;
     private final ArticleMapper mapper;
+    private final Optional<SearchPageCache> searchPageCache;
+    private final CategoryRepository categoryRepository;
+    private final ArticleSearchIndex searchIndex;
+    private final Optional<CacheInvalidationService> cacheInvalidationService;
 
     @Override
     protected BaseRepository<Article> getRepository() {
@@ -50,16 +79,60 @@ public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, Article
         return mapper.toDTO(entity);
     }
 
+    @Override
+    protected Set<String> getSeekSortProperties() {
+        return Set.of(BaseEntity_.ID, BaseEntity_.CREATED_AT, Article_.NAME);
+    }
+
+    /**
+     * The mapper does not map the category back, resolve it from the id given in the DTO
+     */
+    @Override
+    public void prepareForCreate(Article entity, ArticleDTO dto) {
+        if (dto.getCategoryId() == null) {
+            throw new BusinessValidationException("Category id must not be null");
+        }
+        entity.setCategory(getCategory(dto.getCategoryId()));
+    }
+
+    /**
+     * Keep the category of the existing article, which the mapper does not carry over
+     */
+    @Override
+    public void prepareForUpdate(Article entity, Article existingEntity) {
+        entity.setCategory(existingEntity.getCategory());
+    }
+
+    @Override
+    public void afterCreate(Article entity, ArticleDTO dto) {
+        searchIndex.indexAfterCommit(entity);
+    }
+
+    @Override
+    public void afterUpdate(Article entity, ArticleDTO dto) {
+        searchIndex.indexAfterCommit(entity);
+    }
+
+    @Override
+    public void afterPartialUpdate(Article entity, PartialUpdateDTO<ArticleDTO> partialDTO) {
+        searchIndex.indexAfterCommit(entity);
+    }
+
+    private Category getCategory(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+    }
+
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE, key = "'dto_' + #id")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE, key = "'dto_' + #id", sync = true)
     public ArticleDTO findById(Long id) {
         return super.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ALL_ARTICLES, key = "'dto_' + (#criteria != null ? #criteria.hashCode() : 'all')")
+    @Cacheable(value = CacheConfig.CacheNames.ALL_ARTICLES, key = "'dto_' + T(com.example.common.criteria.CriteriaKeyEncoder).encode(#criteria)", sync = true)
     public List<ArticleDTO> findByCriteria(ArticleCriteria criteria) {
         return super.findByCriteria(criteria);
     }
@@ -67,24 +140,113 @@ public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, Article
     @Override
     @Transactional(readOnly = true)
     public Page<ArticleDTO> findByCriteria(ArticleCriteria criteria, Pageable pageable) {
-        return super.findByCriteria(criteria, pageable);
+        return searchPageCache
+                .map(cache -> cache.getPage(CacheConfig.CacheNames.ARTICLE_PAGE, CacheConfig.CacheNames.ARTICLE,
+                        SearchPageCache.pageKey(criteria, pageable), pageable, ArticleDTO.class,
+                        () -> super.findByCriteria(criteria, pageable), this::findAllByIds))
+                .orElseGet(() -> super.findByCriteria(criteria, pageable));
     }
 
+    @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'entity_' + #name")
+    public Slice<ArticleDTO> findSliceByCriteria(ArticleCriteria criteria, Pageable pageable) {
+        return super.findSliceByCriteria(criteria, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_COUNT, key = "'count_' + T(com.example.common.criteria.CriteriaKeyEncoder).encode(#criteria)", sync = true)
+    public long countByCriteria(ArticleCriteria criteria) {
+        return super.countByCriteria(criteria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OptionalLong estimateCountByCriteria(ArticleCriteria criteria) {
+        return super.estimateCountByCriteria(criteria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleDTO> findByCriteriaAfter(ArticleCriteria criteria, String cursor, Pageable pageable) {
+        return super.findByCriteriaAfter(criteria, cursor, pageable);
+    }
+
+    /**
+     * Articles whose name, summary or content contain a text, ignoring case. Ranked by the search index: name
+     * matches first, then summary, then content, most recent first. While the index cannot answer, the most recent
+     * matches are returned, and they complete the ranked matches when the index gives too many candidates to check.
+     *
+     * @param text Searched text
+     * @param size Maximum number of articles, at most 100
+     * @return Matching articles, best ranked first
+     */
+    @Transactional(readOnly = true)
+    public List<ArticleDTO> searchText(String text, int size) {
+        if (!StringUtils.hasText(text)) {
+            throw new RequestValidationException("Search text must not be blank");
+        }
+        if (size < 1 || size > MAX_TEXT_SEARCH_SIZE) {
+            throw new RequestValidationException("Size must be between 1 and " + MAX_TEXT_SEARCH_SIZE);
+        }
+
+        Specification<Article> matches = queryService.createTextSpecification(text);
+        Optional<List<Long>> ranked = searchIndex.search(text, ArticleQueryService.MAX_INDEXED_CANDIDATES + 1);
+        if (ranked.isEmpty()) {
+            return findLatestMatches(matches, size);
+        }
+
+        // Candidates are a superset of the matches: check them in rank order, a chunk at a time
+        boolean truncated = ranked.get().size() > ArticleQueryService.MAX_INDEXED_CANDIDATES;
+        List<Long> candidates = truncated
+                ? ranked.get().subList(0, ArticleQueryService.MAX_INDEXED_CANDIDATES)
+                : ranked.get();
+        List<ArticleDTO> result = new ArrayList<>(size);
+        for (int from = 0; from < candidates.size() && result.size() < size; from += size) {
+            List<Long> chunk = candidates.subList(from, Math.min(from + size, candidates.size()));
+            Specification<Article> inChunk = (root, query, builder) -> root.get(BaseEntity_.id).in(chunk);
+            Map<Long, Article> found = repository.findAll(inChunk.and(matches).and(queryService.fetchCategory())).stream()
+                    .collect(Collectors.toMap(Article::getId, Function.identity()));
+            for (Long id : chunk) {
+                Article article = found.get(id);
+                if (article != null && result.size() < size) {
+                    result.add(toDTO(article));
+                }
+            }
+        }
+
+        // Matches may remain beyond the checked candidates: complete with the most recent ones
+        if (truncated && result.size() < size) {
+            Set<Long> returned = result.stream().map(ArticleDTO::getId).collect(Collectors.toSet());
+            for (ArticleDTO latest : findLatestMatches(matches, size)) {
+                if (result.size() < size && returned.add(latest.getId())) {
+                    result.add(latest);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<ArticleDTO> findLatestMatches(Specification<Article> matches, int size) {
+        PageRequest pageRequest = PageRequest.of(0, size, Sort.by(Sort.Order.desc(BaseEntity_.ID)));
+        return repository.findSlice(matches.and(queryService.fetchCategory()), pageRequest).map(this::toDTO).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'entity_' + #name", sync = true)
     public Article getByName(String name) {
         return repository.findByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with name: " + name));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'entity_' + #name")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'entity_' + #name", sync = true)
     public Article getByNameNullable(String name) {
         return repository.findByName(name).orElse(null);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'dto_' + #name")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'dto_' + #name", sync = true)
     public ArticleDTO getDTOByName(String name) {
         return repository.findByName(name)
                 .map(this::toDTO)
@@ -92,20 +254,20 @@ public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, Article
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #path", sync = true)
     public Article getByPath(String path) {
         return repository.findByPath(path)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with path: " + path));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #path", sync = true)
     public Article getByPathNullable(String path) {
         return repository.findByPath(path).orElse(null);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'dto_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'dto_' + #path", sync = true)
     public ArticleDTO getDTOByPath(String path) {
         return repository.findByPath(path)
                 .map(this::toDTO)
@@ -119,7 +281,13 @@ public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, Article
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'dto_' + #result.name"),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #result.path"),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'dto_' + #result.path"),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_PAGE, allEntries = true),
+            // Category DTOs carry the article count and latest articles
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #result.categoryId"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.categoryName"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.categoryPath"),
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
     })
     public ArticleDTO create(ArticleDTO dto) {
         return super.create(dto);
@@ -132,20 +300,52 @@ public class ArticleService extends BaseServiceImpl<Article, ArticleDTO, Article
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'dto_' + #result.name"),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #result.path"),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'dto_' + #result.path"),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_PAGE, allEntries = true),
+            // Category DTOs carry the article count and latest articles
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #result.categoryId"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.categoryName"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.categoryPath"),
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
     })
     public ArticleDTO update(ArticleDTO dto) {
         return super.update(dto);
     }
 
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE, key = "'dto_' + #id"),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'entity_' + #result.name"),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, key = "'dto_' + #result.name"),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'entity_' + #result.path"),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, key = "'dto_' + #result.path"),
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_PAGE, allEntries = true),
+            // Category DTOs carry the article count and latest articles
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #result.categoryId"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.categoryName"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.categoryPath"),
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
+    })
+    public ArticleDTO partialUpdate(Long id, PartialUpdateDTO<ArticleDTO> partialDTO) {
+        return super.partialUpdate(id, partialDTO);
+    }
+
     @Override
     @Caching(evict = {
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE, key = "'dto_' + #id"),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_NAME, allEntries = true),
             @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_BY_PATH, allEntries = true),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.ARTICLE_PAGE, allEntries = true)
     })
     public void delete(Long id) {
+        // Category DTOs carry the article count and latest articles, evict those of the category the article was in
+        Optional<Category> category = repository.findCategoryById(id);
         super.delete(id);
+        searchIndex.removeAfterCommit(id);
+        category.ifPresent(c -> cacheInvalidationService.ifPresent(service ->
+                service.invalidateCategoryCaches(c.getId(), c.getName(), c.getPath())));
     }
 }
@@ -1,15 +1,24 @@
 package com.example.service;
 
 import com.example.common.exception.ResourceNotFoundException;
+import com.example.common.pagination.CursorPage;
 import com.example.common.repository.BaseRepository;
 import com.example.common.service.BaseQueryService;
 import com.example.common.service.BaseServiceImpl;
 import com.example.config.CacheConfig;
+import com.example.entity.BaseEntity_;
 import com.example.entity.Category;
+import com.example.entity.Category_;
 import com.example.mapper.CategoryMapper;
 import com.example.model.criteria.CategoryCriteria;
+import com.example.model.dto.ArticleSummaryDTO;
 import com.example.model.dto.CategoryDTO;
+import com.example.model.dto.PartialUpdateDTO;
+import com.example.model.projection.CategoryArticleCount;
+import com.example.repository.ArticleRepository;
 import com.example.repository.CategoryRepository;
+import com.example.service.cache.CacheInvalidationService;
+import com.example.service.cache.SearchPageCache;
 import com.example.service.query.CategoryQueryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -17,18 +26,34 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, CategoryCriteria> {
 
+    /**
+     * Latest articles carried by a category DTO, the others are read from {@link #findArticles}
+     */
+    public static final int ARTICLE_PREVIEW_SIZE = 10;
+
     private final CategoryRepository repository;
+    private final ArticleRepository articleRepository;
     private final CategoryQueryService queryService;
     private final CategoryMapper mapper;
+    private final Optional<SearchPageCache> searchPageCache;
+    private final Optional<CacheInvalidationService> cacheInvalidationService;
 
     @Override
     protected BaseRepository<Category> getRepository() {
@@ -47,19 +72,46 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
 
     @Override
     protected CategoryDTO toDTO(Category entity) {
-        return mapper.toDTO(entity);
+        return toDTOs(List.of(entity)).get(0);
+    }
+
+    /**
+     * Categories carry their article count and latest articles, read for the whole list with one grouped count and
+     * one top-N query instead of loading the article collections
+     */
+    @Override
+    protected List<CategoryDTO> toDTOs(List<Category> entities) {
+        List<CategoryDTO> dtos = mapper.toDTOs(entities);
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+        List<Long> ids = dtos.stream().map(CategoryDTO::getId).toList();
+        Map<Long, Long> counts = articleRepository.countByCategoryIds(ids).stream()
+                .collect(Collectors.toMap(CategoryArticleCount::categoryId, CategoryArticleCount::count));
+        Map<Long, List<ArticleSummaryDTO>> latest =
+                articleRepository.findLatestSummariesByCategoryIds(ids, ARTICLE_PREVIEW_SIZE);
+        for (CategoryDTO dto : dtos) {
+            dto.setArticleCount(counts.getOrDefault(dto.getId(), 0L));
+            dto.setArticles(latest.getOrDefault(dto.getId(), new ArrayList<>()));
+        }
+        return dtos;
+    }
+
+    @Override
+    protected Set<String> getSeekSortProperties() {
+        return Set.of(BaseEntity_.ID, BaseEntity_.CREATED_AT, Category_.NAME);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #id")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #id", sync = true)
     public CategoryDTO findById(Long id) {
         return super.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.ALL_CATEGORIES, key = "'dto_' + (#criteria != null ? #criteria.hashCode() : 'all')")
+    @Cacheable(value = CacheConfig.CacheNames.ALL_CATEGORIES, key = "'dto_' + T(com.example.common.criteria.CriteriaKeyEncoder).encode(#criteria)", sync = true)
     public List<CategoryDTO> findByCriteria(CategoryCriteria criteria) {
         return super.findByCriteria(criteria);
     }
@@ -67,24 +119,64 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
     @Override
     @Transactional(readOnly = true)
     public Page<CategoryDTO> findByCriteria(CategoryCriteria criteria, Pageable pageable) {
-        return super.findByCriteria(criteria, pageable);
+        return searchPageCache
+                .map(cache -> cache.getPage(CacheConfig.CacheNames.CATEGORY_PAGE, CacheConfig.CacheNames.CATEGORY,
+                        SearchPageCache.pageKey(criteria, pageable), pageable, CategoryDTO.class,
+                        () -> super.findByCriteria(criteria, pageable), this::findAllByIds))
+                .orElseGet(() -> super.findByCriteria(criteria, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CategoryDTO> findSliceByCriteria(CategoryCriteria criteria, Pageable pageable) {
+        return super.findSliceByCriteria(criteria, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_COUNT, key = "'count_' + T(com.example.common.criteria.CriteriaKeyEncoder).encode(#criteria)", sync = true)
+    public long countByCriteria(CategoryCriteria criteria) {
+        return super.countByCriteria(criteria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OptionalLong estimateCountByCriteria(CategoryCriteria criteria) {
+        return super.estimateCountByCriteria(criteria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryDTO> findByCriteriaAfter(CategoryCriteria criteria, String cursor, Pageable pageable) {
+        return super.findByCriteriaAfter(criteria, cursor, pageable);
+    }
+
+    /**
+     * Articles of a category, a page at a time
+     */
+    @Transactional(readOnly = true)
+    public Page<ArticleSummaryDTO> findArticles(Long id, Pageable pageable) {
+        if (!repository.existsById(id)) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        return articleRepository.findSummariesByCategoryId(id, pageable);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'entity_' + #name")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'entity_' + #name", sync = true)
     public Category getByName(String name) {
         return repository.findByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with name: " + name));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'entity_' + #name")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'entity_' + #name", sync = true)
     public Category getByNameNullable(String name) {
         return repository.findByName(name).orElse(null);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #name")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #name", sync = true)
     public CategoryDTO getDTOByName(String name) {
         return repository.findByName(name)
                 .map(this::toDTO)
@@ -92,20 +184,20 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #path", sync = true)
     public Category getByPath(String path) {
         return repository.findByPath(path)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with path: " + path));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #path", sync = true)
     public Category getByPathNullable(String path) {
         return repository.findByPath(path).orElse(null);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #path")
+    @Cacheable(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #path", sync = true)
     public CategoryDTO getDTOByPath(String path) {
         return repository.findByPath(path)
                 .map(this::toDTO)
@@ -119,7 +211,8 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.name"),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #result.path"),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.path"),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_PAGE, allEntries = true)
     })
     public CategoryDTO create(CategoryDTO dto) {
         return super.create(dto);
@@ -132,10 +225,39 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.name"),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #result.path"),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.path"),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_PAGE, allEntries = true),
+            // Article DTOs carry the category name and path
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_ARTICLES, allEntries = true)
     })
     public CategoryDTO update(CategoryDTO dto) {
-        return super.update(dto);
+        Optional<Category> current = repository.findById(dto.getId());
+        String currentName = current.map(Category::getName).orElse(null);
+        String currentPath = current.map(Category::getPath).orElse(null);
+
+        CategoryDTO updated = super.update(dto);
+
+        // Only the DTOs of the articles of this category carry its name and path
+        if (!Objects.equals(currentName, updated.getName()) || !Objects.equals(currentPath, updated.getPath())) {
+            cacheInvalidationService.ifPresent(service ->
+                    service.invalidateArticleDTOs(articleRepository.findKeysByCategoryId(updated.getId())));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #id"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'entity_' + #result.name"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, key = "'dto_' + #result.name"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'entity_' + #result.path"),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, key = "'dto_' + #result.path"),
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_PAGE, allEntries = true)
+    })
+    public CategoryDTO partialUpdate(Long id, PartialUpdateDTO<CategoryDTO> partialDTO) {
+        return super.partialUpdate(id, partialDTO);
     }
 
     @Override
@@ -143,7 +265,8 @@ public class CategoryService extends BaseServiceImpl<Category, CategoryDTO, Cate
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY, key = "'dto_' + #id"),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_NAME, allEntries = true),
             @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_BY_PATH, allEntries = true),
-            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true)
+            @CacheEvict(value = CacheConfig.CacheNames.ALL_CATEGORIES, allEntries = true),
+            @CacheEvict(value = CacheConfig.CacheNames.CATEGORY_PAGE, allEntries = true)
     })
     public void delete(Long id) {
         super.delete(id);
@@ -2,12 +2,15 @@ package com.example.service.cache;
 
 import com.example.config.CacheConfig;
 import com.example.config.properties.RedisProperties;
+import com.example.model.projection.ArticleKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Service for handling cache invalidation strategies
@@ -40,7 +43,7 @@ public class CacheInvalidationService {
             }
 
             // Evict list caches
-            cacheService.evictAll(CacheConfig.CacheNames.ALL_CATEGORIES);
+            cacheService.evictAll(CacheConfig.CacheNames.ALL_CATEGORIES, CacheConfig.CacheNames.CATEGORY_PAGE);
 
             log.info("Invalidated category caches for categoryId: {}, categoryName: {}, categoryPath: {}",
                     categoryId, categoryName, categoryPath);
@@ -68,7 +71,7 @@ public class CacheInvalidationService {
             }
 
             // Evict list caches
-            cacheService.evictAll(CacheConfig.CacheNames.ALL_ARTICLES);
+            cacheService.evictAll(CacheConfig.CacheNames.ALL_ARTICLES, CacheConfig.CacheNames.ARTICLE_PAGE);
 
             log.info("Invalidated article caches for articleId: {}, articleName: {}, articlePath: {}",
                     articleId, articleName, articlePath);
@@ -77,6 +80,29 @@ public class CacheInvalidationService {
         }
     }
 
+    /**
+     * Invalidate the cached DTOs of articles, whose entity entries are kept. Used when the category data the DTOs
+     * carry changes.
+     */
+    public void invalidateArticleDTOs(Collection<ArticleKey> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        try {
+            cacheService.evictAll(CacheConfig.CacheNames.ARTICLE, articles.stream()
+                    .map(article -> "dto_" + article.id())
+                    .collect(Collectors.toSet()));
+            cacheService.evictAll(CacheConfig.CacheNames.ARTICLE_BY_NAME, articles.stream()
+                    .map(article -> "dto_" + article.name())
+                    .collect(Collectors.toSet()));
+            cacheService.evictAll(CacheConfig.CacheNames.ARTICLE_BY_PATH, articles.stream()
+                    .map(article -> "dto_" + article.path())
+                    .collect(Collectors.toSet()));
+        } catch (Exception e) {
+            log.error("Error invalidating article DTO caches: {}", e.getMessage());
+        }
+    }
+
     /**
      * Invalidate all master data caches
      */
@@ -87,10 +113,14 @@ public class CacheInvalidationService {
                     CacheConfig.CacheNames.CATEGORY_BY_NAME,
                     CacheConfig.CacheNames.CATEGORY_BY_PATH,
                     CacheConfig.CacheNames.ALL_CATEGORIES,
+                    CacheConfig.CacheNames.CATEGORY_COUNT,
+                    CacheConfig.CacheNames.CATEGORY_PAGE,
                     CacheConfig.CacheNames.ARTICLE,
                     CacheConfig.CacheNames.ARTICLE_BY_NAME,
                     CacheConfig.CacheNames.ARTICLE_BY_PATH,
-                    CacheConfig.CacheNames.ALL_ARTICLES
+                    CacheConfig.CacheNames.ALL_ARTICLES,
+                    CacheConfig.CacheNames.ARTICLE_COUNT,
+                    CacheConfig.CacheNames.ARTICLE_PAGE
             );
 
             cacheService.evictAll(masterDataCaches.toArray(new String[0]));
@@ -101,15 +131,17 @@ public class CacheInvalidationService {
     }
 
     /**
-     * Invalidate caches by pattern
+     * Invalidate caches by pattern, e.g. {@code article_by_path:dto_/news/*}
+     *
+     * @param pattern Glob-style pattern of {@code <cacheName>:<key>}, relative to the key prefix
+     * @return Number of cache entries removed
      */
-    public void invalidateCachesByPattern(String pattern) {
+    public long invalidateCachesByPattern(String pattern) {
         try {
-            // This would require implementing pattern-based cache invalidation
-            // For now, we'll just log and potentially implement if needed
-            log.warn("Pattern-based cache invalidation not implemented yet: {}", pattern);
+            return cacheService.evictByPattern(pattern).getDeleted();
         } catch (Exception e) {
             log.error("Error invalidating caches by pattern '{}': {}", pattern, e.getMessage());
+            return 0;
         }
     }
 
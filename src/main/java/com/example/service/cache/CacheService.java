@@ -2,8 +2,10 @@ package com.example.service.cache;
 
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Service interface for cache operations
@@ -29,6 +31,18 @@ public interface CacheService {
      */
     <T> Optional<T> get(String cacheName, String key, Class<T> clazz);
 
+    /**
+     * Get a value from cache, or load and cache it. The cache resolves the stored key before loading, so that a
+     * generational cache cleared during the load does not get the loaded value in its new generation. If the cache
+     * fails, the value is loaded without it.
+     *
+     * @param cacheName   Cache name
+     * @param key         Cache key
+     * @param valueLoader Loads the value on a miss, its exceptions are rethrown as is
+     * @return Cached or loaded value
+     */
+    <T> T get(String cacheName, String key, Supplier<T> valueLoader);
+
     /**
      * Evict a single cache entry
      *
@@ -77,12 +91,13 @@ public interface CacheService {
     long getSize(String cacheName);
 
     /**
-     * Put multiple values into cache
+     * Put multiple values into cache, pipelining the writes in batches and applying the cache TTL to each entry
      *
      * @param cacheName Cache name
      * @param values    Map of key-value pairs
+     * @return Bulk write result
      */
-    void putAll(String cacheName, java.util.Map<String, Object> values);
+    BulkWriteResult putAll(String cacheName, java.util.Map<String, Object> values);
 
     /**
      * Get multiple values from cache
@@ -102,6 +117,14 @@ public interface CacheService {
      */
     void evictAll(String cacheName, Set<String> keys);
 
+    /**
+     * Evict every entry whose key matches a pattern, scanning incrementally and unlinking matches in rate-limited batches
+     *
+     * @param pattern Glob-style pattern relative to the key prefix, e.g. {@code article_by_path:dto_/news/*}
+     * @return Bulk delete result
+     */
+    BulkDeleteResult evictByPattern(String pattern);
+
     /**
      * Clear all caches
      */
@@ -150,16 +173,68 @@ public interface CacheService {
         private final long hitCount;
         private final long missCount;
         private final double hitRate;
+        private final long putCount;
+        private final long evictionCount;
+        private final long loadCount;
+        private final long loadFailureCount;
+        private final Duration averageLoadTime;
+        private final Duration redisLatencyP50;
+        private final Duration redisLatencyP95;
+        private final Duration redisLatencyP99;
 
         public CacheStats(long size, long hitCount, long missCount) {
+            this(size, hitCount, missCount, 0, 0, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+
+        public CacheStats(long size, long hitCount, long missCount, long putCount, long evictionCount,
+                          long loadCount, long loadFailureCount, Duration averageLoadTime,
+                          Duration redisLatencyP50, Duration redisLatencyP95, Duration redisLatencyP99) {
             this.size = size;
             this.hitCount = hitCount;
             this.missCount = missCount;
             this.hitRate = (hitCount + missCount) > 0 ? (double) hitCount / (hitCount + missCount) : 0.0;
+            this.putCount = putCount;
+            this.evictionCount = evictionCount;
+            this.loadCount = loadCount;
+            this.loadFailureCount = loadFailureCount;
+            this.averageLoadTime = averageLoadTime;
+            this.redisLatencyP50 = redisLatencyP50;
+            this.redisLatencyP95 = redisLatencyP95;
+            this.redisLatencyP99 = redisLatencyP99;
         }
 
         public long getTotalRequests() {
             return hitCount + missCount;
         }
     }
+
+    /**
+     * Bulk write result
+     */
+    @Getter
+    class BulkWriteResult {
+        private final long written;
+        private final long failed;
+        private final Duration elapsed;
+
+        public BulkWriteResult(long written, long failed, Duration elapsed) {
+            this.written = written;
+            this.failed = failed;
+            this.elapsed = elapsed;
+        }
+    }
+
+    /**
+     * Bulk delete result
+     */
+    @Getter
+    class BulkDeleteResult {
+        private final long deleted;
+        private final Duration elapsed;
+
+        public BulkDeleteResult(long deleted, Duration elapsed) {
+            this.deleted = deleted;
+            this.elapsed = elapsed;
+        }
+    }
 } 
\ No newline at end of file
@@ -1,17 +1,45 @@
 package com.example.service.cache;
 
+import com.example.config.cache.CacheCardinalityTracker;
+import com.example.config.cache.CacheKeys;
+import com.example.config.cache.CacheMetrics;
+import com.example.config.cache.DelegatingCache;
+import com.example.config.cache.GenerationalCache;
+import com.example.config.cache.InstrumentedCache;
+import com.example.config.cache.RedisKeyScanner;
+import com.example.config.cache.RefreshingCache;
+import com.example.config.cache.TwoTierCache;
 import com.example.config.properties.RedisProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.jedis.JedisClusterConnection;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.util.PatternMatchUtils;
+import redis.clients.jedis.ClusterPipeline;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.Response;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
@@ -19,8 +47,14 @@ import java.util.stream.Collectors;
 @ConditionalOnProperty(prefix = "application.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class CacheServiceImpl implements CacheService {
 
+    // RedisCache stores cached nulls as the JDK-serialized NullValue, whatever the value serializer
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
     private final CacheManager cacheManager;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisKeyScanner redisKeyScanner;
+    private final CacheCardinalityTracker cardinalityTracker;
     private final RedisProperties redisProperties;
 
     @Override
@@ -68,6 +102,22 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    @Override
+    public <T> T get(String cacheName, String key, Supplier<T> valueLoader) {
+        Load<T> load = new Load<>(valueLoader);
+        try {
+            return getCache(cacheName).get(key, load::run);
+        } catch (RuntimeException e) {
+            if (load.failure != null) {
+                throw load.failure;
+            }
+            log.error("Error retrieving cached value for key '{}' in cache '{}': {}",
+                    key, cacheName, e.getMessage());
+            // Do not load twice when only storing the loaded value failed
+            return load.done ? load.value : valueLoader.get();
+        }
+    }
+
     @Override
     public void evict(String cacheName, String key) {
         try {
@@ -108,53 +158,166 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    /**
+     * Get all keys from a cache, iterating with SCAN (on every master node in cluster mode) rather than KEYS
+     */
     @Override
     public Set<String> getKeys(String cacheName) {
-        try {
-            String pattern = buildRedisKey(cacheName, "*");
-            Set<String> redisKeys = redisTemplate.keys(pattern);
-
+        try (RedisConnection connection = connectionFactory.getConnection()) {
             String prefix = buildRedisKey(cacheName, "");
-            return redisKeys.stream()
-                    .map(redisKey -> redisKey.substring(prefix.length()))
-                    .collect(Collectors.toSet());
-
+            Set<String> keys = new HashSet<>();
+            redisKeyScanner.scan(connection, (prefix + "*").getBytes(StandardCharsets.UTF_8), batch -> {
+                for (byte[] rawKey : batch) {
+                    keys.add(new String(rawKey, StandardCharsets.UTF_8).substring(prefix.length()));
+                }
+            });
+            return keys;
         } catch (Exception e) {
             log.error("Error getting keys from cache '{}': {}", cacheName, e.getMessage());
             return new HashSet<>();
         }
     }
 
+    /**
+     * Get the estimated cache size in O(1), see {@link CacheCardinalityTracker}
+     */
     @Override
     public long getSize(String cacheName) {
         try {
-            String pattern = buildRedisKey(cacheName, "*");
-            Set<String> keys = redisTemplate.keys(pattern);
-            return keys.size();
+            return cardinalityTracker.estimate(cacheName);
         } catch (Exception e) {
             log.error("Error getting size of cache '{}': {}", cacheName, e.getMessage());
             return 0;
         }
     }
 
+    /**
+     * Bulk write: values are serialized with the cache's own serializer and written with SET PX in pipelined
+     * batches of {@code application.redis.cache.batch-size}, using the TTL the cache would apply to each entry.
+     * A failing batch is counted and logged without aborting the remaining ones.
+     */
     @Override
-    public void putAll(String cacheName, Map<String, Object> values) {
-        try {
-            Cache cache = getCache(cacheName);
+    public BulkWriteResult putAll(String cacheName, Map<String, Object> values) {
+        long start = System.nanoTime();
+        Cache cache = getCache(cacheName);
+        RedisCache redisCache = DelegatingCache.unwrap(cache, RedisCache.class);
+        if (redisCache == null) {
             values.forEach(cache::put);
-            log.info("Cached {} values in cache '{}'", values.size(), cacheName);
-        } catch (Exception e) {
-            log.error("Error caching multiple values in cache '{}': {}", cacheName, e.getMessage());
-            throw new RuntimeException("Failed to cache multiple values", e);
+            return new BulkWriteResult(values.size(), 0, Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        TwoTierCache twoTierCache = DelegatingCache.unwrap(cache, TwoTierCache.class);
+        GenerationalCache generationalCache = DelegatingCache.unwrap(cache, GenerationalCache.class);
+        RefreshingCache refreshingCache = DelegatingCache.unwrap(cache, RefreshingCache.class);
+        int batchSize = redisProperties.getCache().getBatchSize();
+        long written = 0;
+        long failed = 0;
+
+        List<RawEntry> batch = new ArrayList<>(Math.min(batchSize, values.size()));
+        List<String> batchKeys = new ArrayList<>(Math.min(batchSize, values.size()));
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String storedKey = toStoredKey(generationalCache, entry.getKey());
+            Object storedValue = refreshingCache != null ? refreshingCache.wrap(entry.getValue()) : entry.getValue();
+            RawEntry rawEntry = toRawEntry(configuration, cacheName, storedKey, storedValue);
+            if (rawEntry == null) {
+                failed++;
+                continue;
+            }
+
+            batch.add(rawEntry);
+            batchKeys.add(storedKey);
+            if (batch.size() == batchSize) {
+                long batchWritten = writeBatch(cacheName, batch, batchKeys, twoTierCache);
+                written += batchWritten;
+                failed += batch.size() - batchWritten;
+                batch.clear();
+                batchKeys.clear();
+            }
         }
+        if (!batch.isEmpty()) {
+            long batchWritten = writeBatch(cacheName, batch, batchKeys, twoTierCache);
+            written += batchWritten;
+            failed += batch.size() - batchWritten;
+        }
+
+        BulkWriteResult result = new BulkWriteResult(written, failed, Duration.ofNanos(System.nanoTime() - start));
+        logBulkWrite(cacheName, result);
+        return result;
     }
 
+    private static void logBulkWrite(String cacheName, BulkWriteResult result) {
+        if (result.getFailed() > 0) {
+            log.warn("Cache '{}' bulk write: {} entries written, {} failed in {} ms",
+                    cacheName, result.getWritten(), result.getFailed(), result.getElapsed().toMillis());
+        } else {
+            log.info("Cache '{}' bulk write: {} entries written in {} ms",
+                    cacheName, result.getWritten(), result.getElapsed().toMillis());
+        }
+    }
+
+    /**
+     * Bulk read: keys held in the local tier are served from memory, the rest are fetched with a single MGET
+     * (one MGET per hash slot, pipelined per node, in cluster mode) and deserialized with the cache's own
+     * value serializer.
+     */
     @Override
     public <T> Map<String, T> getAll(String cacheName, Set<String> keys, Class<T> clazz) {
         Map<String, T> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
 
-        for (String key : keys) {
-            get(cacheName, key, clazz).ifPresent(value -> result.put(key, value));
+        try {
+            Cache cache = getCache(cacheName);
+            RedisCache redisCache = DelegatingCache.unwrap(cache, RedisCache.class);
+            if (redisCache == null) {
+                for (String key : keys) {
+                    get(cacheName, key, clazz).ifPresent(value -> result.put(key, value));
+                }
+                return result;
+            }
+
+            TwoTierCache twoTierCache = DelegatingCache.unwrap(cache, TwoTierCache.class);
+            GenerationalCache generationalCache = DelegatingCache.unwrap(cache, GenerationalCache.class);
+            List<String> remoteKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Cache.ValueWrapper local = twoTierCache != null ? twoTierCache.getLocal(toStoredKey(generationalCache, key)) : null;
+                if (local != null) {
+                    addIfInstance(result, cacheName, key, local.get(), clazz);
+                } else {
+                    remoteKeys.add(key);
+                }
+            }
+
+            if (!remoteKeys.isEmpty()) {
+                RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+                byte[][] rawKeys = new byte[remoteKeys.size()][];
+                for (int i = 0; i < rawKeys.length; i++) {
+                    rawKeys[i] = serializeKey(configuration, cacheName, toStoredKey(generationalCache, remoteKeys.get(i)));
+                }
+
+                List<byte[]> rawValues = multiGet(rawKeys);
+                for (int i = 0; i < rawKeys.length; i++) {
+                    byte[] rawValue = rawValues.get(i);
+                    if (rawValue == null || Arrays.equals(rawValue, BINARY_NULL_VALUE)) {
+                        continue;
+                    }
+
+                    String key = remoteKeys.get(i);
+                    try {
+                        Object value = RefreshingCache.unwrapValue(configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue)));
+                        if (twoTierCache != null) {
+                            twoTierCache.putLocal(toStoredKey(generationalCache, key), value);
+                        }
+                        addIfInstance(result, cacheName, key, value, clazz);
+                    } catch (Exception e) {
+                        log.warn("Error deserializing cached value for key '{}' in cache '{}': {}", key, cacheName, e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error retrieving multiple values from cache '{}': {}", cacheName, e.getMessage());
         }
 
         log.debug("Retrieved {} out of {} requested keys from cache '{}'",
@@ -173,6 +336,46 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    /**
+     * Pattern eviction: matching keys are collected with SCAN (every master node in cluster mode) and removed with
+     * UNLINK batch by batch, throttled to {@code application.redis.cache.invalidation.max-keys-per-second}. The local
+     * tier of every cache the pattern can reach is then dropped on all nodes.
+     */
+    @Override
+    public BulkDeleteResult evictByPattern(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("Invalidation pattern must not be empty");
+        }
+
+        RedisProperties.Invalidation settings = redisProperties.getCache().getInvalidation();
+        String redisPattern = redisProperties.getCache().getKeyPrefix() + redisProperties.getCache().getKeySeparator() + pattern;
+        long start = System.nanoTime();
+        long[] deleted = new long[1];
+        long[] lastReport = {start};
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            redisKeyScanner.scan(connection, redisPattern.getBytes(StandardCharsets.UTF_8), batch -> {
+                Long count = connection.keyCommands().unlink(batch.toArray(byte[][]::new));
+                deleted[0] += count != null ? count : 0;
+
+                long now = System.nanoTime();
+                if (now - lastReport[0] >= settings.getProgressInterval().toNanos()) {
+                    log.info("Pattern invalidation '{}' in progress: {} keys unlinked in {} ms",
+                            pattern, deleted[0], Duration.ofNanos(now - start).toMillis());
+                    lastReport[0] = now;
+                }
+                throttle(deleted[0], start, settings.getMaxKeysPerSecond());
+            });
+        } finally {
+            clearLocalTiers(pattern);
+        }
+
+        BulkDeleteResult result = new BulkDeleteResult(deleted[0], Duration.ofNanos(System.nanoTime() - start));
+        log.info("Pattern invalidation '{}' completed: {} keys unlinked in {} ms",
+                pattern, result.getDeleted(), result.getElapsed().toMillis());
+        return result;
+    }
+
     @Override
     public void clearAll() {
         try {
@@ -188,9 +391,17 @@ public class CacheServiceImpl implements CacheService {
     public CacheStats getCacheStats(String cacheName) {
         try {
             long size = getSize(cacheName);
-            // Note: Redis doesn't provide hit/miss statistics out of the box
-            // You would need to implement custom metrics or use Redis modules
-            return new CacheStats(size, 0, 0);
+            InstrumentedCache instrumented = DelegatingCache.unwrap(cacheManager.getCache(cacheName), InstrumentedCache.class);
+            if (instrumented == null) {
+                return new CacheStats(size, 0, 0);
+            }
+
+            // Counters are local to this node, aggregate across nodes through the cache.* meters
+            CacheMetrics metrics = instrumented.getMetrics();
+            return new CacheStats(size, metrics.getHitCount(), metrics.getMissCount(),
+                    metrics.getPutCount(), metrics.getEvictionCount(),
+                    metrics.getLoadCount(), metrics.getLoadFailureCount(), metrics.getAverageLoadTime(),
+                    metrics.getRedisGetLatency(0.5), metrics.getRedisGetLatency(0.95), metrics.getRedisGetLatency(0.99));
         } catch (Exception e) {
             log.error("Error getting cache stats for cache '{}': {}", cacheName, e.getMessage());
             return new CacheStats(0, 0, 0);
@@ -229,6 +440,165 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    // Sleep until the processed count is back under the allowed rate
+    private static void throttle(long processed, long startNanos, int maxPerSecond) {
+        if (maxPerSecond <= 0) {
+            return;
+        }
+
+        long aheadNanos = processed * 1_000_000_000L / maxPerSecond - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(aheadNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Pattern invalidation interrupted", e);
+            }
+        }
+    }
+
+    private void clearLocalTiers(String pattern) {
+        String cacheNamePattern = pattern.split(Pattern.quote(redisProperties.getCache().getKeySeparator()), 2)[0];
+        boolean anyCache = cacheNamePattern.contains("?") || cacheNamePattern.contains("[") || cacheNamePattern.contains("\\");
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (anyCache || PatternMatchUtils.simpleMatch(cacheNamePattern, cacheName)) {
+                TwoTierCache twoTierCache = DelegatingCache.unwrap(cacheManager.getCache(cacheName), TwoTierCache.class);
+                if (twoTierCache != null) {
+                    twoTierCache.clearLocalEverywhere();
+                }
+            }
+        }
+    }
+
+    private RawEntry toRawEntry(RedisCacheConfiguration configuration, String cacheName, String key, Object value) {
+        try {
+            byte[] rawValue;
+            if (value != null) {
+                rawValue = ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+            } else if (configuration.getAllowCacheNullValues()) {
+                rawValue = BINARY_NULL_VALUE;
+            } else {
+                log.warn("Skipping null value for key '{}' in cache '{}' which does not allow null values", key, cacheName);
+                return null;
+            }
+
+            Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+            return new RawEntry(serializeKey(configuration, cacheName, key), rawValue, ttl);
+        } catch (Exception e) {
+            log.warn("Error serializing value for key '{}' in cache '{}': {}", key, cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write a batch of entries in one pipeline round trip. Once the batch is in Redis, the L1 copies of its keys are
+     * dropped on every node with one broadcast.
+     *
+     * @return Number of entries written, 0 if the pipeline failed
+     */
+    private long writeBatch(String cacheName, List<RawEntry> batch, List<String> storedKeys, TwoTierCache twoTierCache) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            if (connection instanceof JedisClusterConnection clusterConnection) {
+                try (ClusterPipeline pipeline = clusterConnection.getNativeConnection().pipelined()) {
+                    for (RawEntry entry : batch) {
+                        if (hasExpiration(entry.ttl())) {
+                            pipeline.psetex(entry.key(), entry.ttl().toMillis(), entry.value());
+                        } else {
+                            pipeline.set(entry.key(), entry.value());
+                        }
+                    }
+                    pipeline.sync();
+                }
+            } else {
+                connection.openPipeline();
+                for (RawEntry entry : batch) {
+                    Expiration expiration = hasExpiration(entry.ttl())
+                            ? Expiration.from(entry.ttl())
+                            : Expiration.persistent();
+                    connection.stringCommands().set(entry.key(), entry.value(), expiration, RedisStringCommands.SetOption.upsert());
+                }
+                connection.closePipeline();
+            }
+            if (twoTierCache != null) {
+                twoTierCache.evictLocalEverywhere(storedKeys);
+            }
+            cardinalityTracker.trackAll(cacheName, storedKeys);
+            return batch.size();
+        } catch (Exception e) {
+            // Part of the pipeline may have been applied, the local copies are dropped on this node at least
+            if (twoTierCache != null) {
+                storedKeys.forEach(twoTierCache::evictLocal);
+            }
+            log.error("Error writing batch of {} values to cache '{}': {}", batch.size(), cacheName, e.getMessage());
+            return 0;
+        }
+    }
+
+    // Key under which an entry is stored below the generation layer, if the cache has one
+    private static String toStoredKey(GenerationalCache generationalCache, String key) {
+        return generationalCache != null ? generationalCache.toStoredKey(key) : key;
+    }
+
+    private static boolean hasExpiration(Duration ttl) {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+
+    private static byte[] serializeKey(RedisCacheConfiguration configuration, String cacheName, String key) {
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(configuration.getKeyPrefixFor(cacheName) + key));
+    }
+
+    private <T> void addIfInstance(Map<String, T> result, String cacheName, String key, Object value, Class<T> clazz) {
+        if (clazz.isInstance(value)) {
+            result.put(key, clazz.cast(value));
+        } else if (value != null) {
+            log.warn("Cached value for key '{}' in cache '{}' is not of expected type {}",
+                    key, cacheName, clazz.getSimpleName());
+        }
+    }
+
+    /**
+     * Fetch raw values in one round trip: MGET in standalone mode, slot-grouped MGETs in a cluster pipeline otherwise.
+     * The returned list is aligned with the given keys and holds null for missing entries.
+     */
+    private List<byte[]> multiGet(byte[][] rawKeys) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            if (connection instanceof JedisClusterConnection clusterConnection) {
+                return clusterMultiGet(clusterConnection.getNativeConnection(), rawKeys);
+            }
+            List<byte[]> values = connection.stringCommands().mGet(rawKeys);
+            return values != null ? values : Collections.nCopies(rawKeys.length, null);
+        }
+    }
+
+    private List<byte[]> clusterMultiGet(JedisCluster cluster, byte[][] rawKeys) {
+        Map<Integer, List<Integer>> indicesBySlot = new HashMap<>();
+        for (int i = 0; i < rawKeys.length; i++) {
+            indicesBySlot.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(rawKeys[i]), slot -> new ArrayList<>()).add(i);
+        }
+
+        byte[][] values = new byte[rawKeys.length][];
+        try (ClusterPipeline pipeline = cluster.pipelined()) {
+            List<Map.Entry<List<Integer>, Response<List<byte[]>>>> responses = new ArrayList<>(indicesBySlot.size());
+            for (List<Integer> indices : indicesBySlot.values()) {
+                byte[][] slotKeys = new byte[indices.size()][];
+                for (int i = 0; i < slotKeys.length; i++) {
+                    slotKeys[i] = rawKeys[indices.get(i)];
+                }
+                responses.add(Map.entry(indices, pipeline.mget(slotKeys)));
+            }
+            pipeline.sync();
+
+            for (Map.Entry<List<Integer>, Response<List<byte[]>>> response : responses) {
+                List<byte[]> slotValues = response.getValue().get();
+                for (int i = 0; i < slotValues.size(); i++) {
+                    values[response.getKey().get(i)] = slotValues.get(i);
+                }
+            }
+        }
+        return Arrays.asList(values);
+    }
+
     private Cache getCache(String cacheName) {
         Cache cache = cacheManager.getCache(cacheName);
         if (cache == null) {
@@ -237,11 +607,36 @@ public class CacheServiceImpl implements CacheService {
         return cache;
     }
 
+    private record RawEntry(byte[] key, byte[] value, Duration ttl) {
+    }
+
+    /**
+     * Value loader remembering its outcome, to tell loader failures from cache failures
+     */
+    private static final class Load<T> {
+
+        private final Supplier<T> loader;
+        private volatile boolean done;
+        private volatile T value;
+        private volatile RuntimeException failure;
+
+        private Load(Supplier<T> loader) {
+            this.loader = loader;
+        }
+
+        private T run() {
+            try {
+                value = loader.get();
+                done = true;
+                return value;
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+    }
+
     private String buildRedisKey(String cacheName, String key) {
-        return redisProperties.getCache().getKeyPrefix() +
-                redisProperties.getCache().getKeySeparator() +
-                cacheName +
-                redisProperties.getCache().getKeySeparator() +
-                key;
+        return CacheKeys.key(redisProperties.getCache(), cacheName, key);
     }
 } 
\ No newline at end of file
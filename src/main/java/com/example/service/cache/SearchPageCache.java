@@ -0,0 +1,142 @@
+package com.example.service.cache;
+
+import com.example.common.criteria.CriteriaKeyEncoder;
+import com.example.common.dto.BaseDTO;
+import com.example.tech.jhipster.service.Criteria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of paginated search results.
+ * <p>
+ * A page is stored as a compact envelope holding the ids of its rows and the search total. On a hit, the rows are
+ * read from the per-id entity cache with a single MGET, and only the rows missing there are loaded from the database.
+ * Page caches are generational list caches, so writes invalidate them with a single INCR.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SearchPageCache {
+
+    private static final String ENTITY_KEY_PREFIX = "dto_";
+
+    private final CacheService cacheService;
+
+    /**
+     * Page envelope stored in the page cache
+     *
+     * @param ids           Ids of the rows, in page order
+     * @param totalElements Total of the search
+     */
+    public record PageEnvelope(List<Long> ids, long totalElements) {
+    }
+
+    /**
+     * Key of a page: the criteria, page number, page size and sort
+     */
+    public static String pageKey(Criteria criteria, Pageable pageable) {
+        String page = pageable.isPaged()
+                ? pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort()
+                : "unpaged:" + pageable.getSort();
+        return "page_" + CriteriaKeyEncoder.encode(criteria) + ":" + page;
+    }
+
+    /**
+     * Get a page from the cache, or search and cache it
+     *
+     * @param pageCacheName   Page cache
+     * @param entityCacheName Per-id cache of the DTOs, keyed by {@code dto_<id>}
+     * @param key             Page key, see {@link #pageKey}
+     * @param pageable        Page request
+     * @param dtoType         DTO type
+     * @param search          Search of the page, on a miss
+     * @param loader          Loads the DTOs of the given ids missing from the entity cache, in any order
+     * @return The page
+     */
+    public <D extends BaseDTO> Page<D> getPage(String pageCacheName, String entityCacheName, String key,
+                                               Pageable pageable, Class<D> dtoType, Supplier<Page<D>> search,
+                                               Function<List<Long>, List<D>> loader) {
+        // The page is searched inside the cache load, so it is stored under the generation read before searching:
+        // a write clearing the page cache during the search leaves the stale page in the previous generation
+        List<Page<D>> searched = new ArrayList<>(1);
+        Supplier<PageEnvelope> searchEnvelope = () -> {
+            Page<D> page = search.get();
+            searched.add(page);
+            return new PageEnvelope(page.getContent().stream().map(BaseDTO::getId).toList(), page.getTotalElements());
+        };
+
+        PageEnvelope envelope = cacheService.get(pageCacheName, key, searchEnvelope);
+        if (!searched.isEmpty()) {
+            return searched.get(0);
+        }
+        List<D> content = hydrate(envelope, entityCacheName, dtoType, loader);
+        if (content != null) {
+            return new PageImpl<>(content, pageable, envelope.totalElements());
+        }
+
+        log.debug("Rows of cached page '{}' in cache '{}' no longer exist, searching again", key, pageCacheName);
+        cacheService.evict(pageCacheName, key);
+        envelope = cacheService.get(pageCacheName, key, searchEnvelope);
+        if (!searched.isEmpty()) {
+            return searched.get(0);
+        }
+        // Another search stored the page in the meantime
+        content = hydrate(envelope, entityCacheName, dtoType, loader);
+        return content != null ? new PageImpl<>(content, pageable, envelope.totalElements()) : search.get();
+    }
+
+    /**
+     * @return DTOs in envelope order, or null if some row no longer exists
+     */
+    private <D extends BaseDTO> List<D> hydrate(PageEnvelope envelope, String entityCacheName, Class<D> dtoType,
+                                                Function<List<Long>, List<D>> loader) {
+        Set<String> keys = new LinkedHashSet<>(envelope.ids().size() * 2);
+        for (Long id : envelope.ids()) {
+            keys.add(ENTITY_KEY_PREFIX + id);
+        }
+        Map<String, D> found = new HashMap<>(cacheService.getAll(entityCacheName, keys, dtoType));
+
+        if (found.size() < keys.size()) {
+            List<Long> missing = new ArrayList<>(keys.size() - found.size());
+            for (Long id : envelope.ids()) {
+                if (!found.containsKey(ENTITY_KEY_PREFIX + id)) {
+                    missing.add(id);
+                }
+            }
+            for (D dto : loader.apply(missing)) {
+                String entityKey = ENTITY_KEY_PREFIX + dto.getId();
+                found.put(entityKey, dto);
+                try {
+                    cacheService.put(entityCacheName, entityKey, dto);
+                } catch (Exception e) {
+                    log.warn("Could not cache '{}' in cache '{}': {}", entityKey, entityCacheName, e.getMessage());
+                }
+            }
+        }
+
+        List<D> content = new ArrayList<>(envelope.ids().size());
+        for (Long id : envelope.ids()) {
+            D dto = found.get(ENTITY_KEY_PREFIX + id);
+            if (dto == null) {
+                return null;
+            }
+            content.add(dto);
+        }
+        return content;
+    }
+}
@@ -1,20 +1,37 @@
 package com.example.service.query;
 
+import com.example.common.exception.RequestValidationException;
 import com.example.common.service.BaseQueryService;
 import com.example.entity.Article;
 import com.example.entity.Article_;
+import com.example.entity.BaseEntity_;
 import com.example.model.criteria.ArticleCriteria;
+import com.example.service.search.ArticleSearchIndex;
+import com.example.tech.jhipster.service.filter.StringFilter;
+import jakarta.persistence.criteria.JoinType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
+@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ArticleQueryService extends BaseQueryService<Article, ArticleCriteria> {
 
+    /**
+     * Above this many index candidates, restricting the scan to them no longer pays off
+     */
+    public static final int MAX_INDEXED_CANDIDATES = 1000;
+
+    private final ArticleSearchIndex searchIndex;
+
     @Override
     protected Specification<Article> doCreateSpecification(ArticleCriteria criteria) {
-        Specification<Article> specification = Specification.where(null);
+        Specification<Article> specification = Specification.where(fetchCategory());
         if (criteria != null) {
             if (criteria.getName() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getName(), Article_.name));
@@ -25,8 +42,64 @@ public class ArticleQueryService extends BaseQueryService<Article, ArticleCriter
             if (criteria.getStatus() != null) {
                 specification = specification.and(buildSpecification(criteria.getStatus(), Article_.status));
             }
+            if (criteria.getText() != null) {
+                specification = specification.and(buildTextSpecification(criteria.getText()));
+            }
         }
         return specification;
     }
 
+    /**
+     * Fetches the category along with the articles, so that mapping a list to DTOs does not load the categories one
+     * by one. Count queries are left alone, they cannot fetch.
+     *
+     * @return a Specification without predicate
+     */
+    public Specification<Article> fetchCategory() {
+        return (root, query, builder) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch(Article_.category, JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Articles whose name, summary or content contain a text, ignoring case. The predicate scans the table, see
+     * {@link #buildTextSpecification} for the indexed form.
+     *
+     * @param text Searched text
+     * @return a Specification
+     */
+    public Specification<Article> createTextSpecification(String text) {
+        return Specification.anyOf(
+                likeUpperSpecification(root -> root.get(Article_.name), text),
+                likeUpperSpecification(root -> root.get(Article_.summary), text),
+                likeUpperSpecification(root -> root.get(Article_.content), text));
+    }
+
+    /**
+     * Text condition restricted to the candidates of the search index, so that the {@code LIKE} predicate only runs
+     * on the candidate rows. Falls back to the scan when the index cannot answer or gives too many candidates.
+     * Conditions other than {@code contains} are rejected rather than ignored.
+     */
+    private Specification<Article> buildTextSpecification(StringFilter filter) {
+        if (filter.getEquals() != null || filter.getNotEquals() != null || filter.getSpecified() != null
+                || filter.getIn() != null || filter.getNotIn() != null || filter.getDoesNotContain() != null) {
+            throw new RequestValidationException("INVALID_CRITERIA", "Only text.contains is supported on text");
+        }
+        String text = filter.getContains();
+        if (text == null) {
+            return null;
+        }
+        Specification<Article> matches = createTextSpecification(text);
+        Optional<List<Long>> candidates = searchIndex.search(text, MAX_INDEXED_CANDIDATES + 1);
+        if (candidates.isEmpty() || candidates.get().size() > MAX_INDEXED_CANDIDATES) {
+            return matches;
+        }
+        if (candidates.get().isEmpty()) {
+            return (root, query, builder) -> builder.disjunction();
+        }
+        return valueIn(root -> root.get(BaseEntity_.id), candidates.get()).and(matches);
+    }
 }
@@ -0,0 +1,663 @@
+package com.example.service.search;
+
+import com.example.config.cache.CacheInvalidationBroadcaster;
+import com.example.config.cache.LocalInvalidationTarget;
+import com.example.entity.Article;
+import com.example.model.projection.ArticleText;
+import com.example.repository.ArticleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index of the article name, summary and content.
+ * <p>
+ * Each posting maps an article to the fields holding the trigram. A text can only be contained in a field holding
+ * all of its trigrams, so a search intersects the postings of the text trigrams into candidates, ranked by the fields
+ * that may contain the text: name first, then summary, then content. Candidates are a superset of the matches, the
+ * caller still checks them with the {@code LIKE} predicate, which then only runs on a handful of rows by primary key.
+ * <p>
+ * Postings are compressed. Each indexed article gets an ordinal, always the largest so far, and the posting list of a
+ * trigram is a byte array of varints, each the delta to the previous ordinal shifted left by three bits and or'ed
+ * with the field bits. Indexing an article appends to the lists, and most entries take a single byte. A rewritten or
+ * deleted article only marks its previous ordinal dead; once the dead ordinals reach a quarter of the index, the lists
+ * are compacted in memory. Posting bytes are bounded by {@link #MAX_INDEX_BYTES}: a larger index is dropped, and
+ * searches fall back to the scan until the next rebuild. A dropped or failed index is rebuilt after
+ * {@link #MIN_REBUILD_DELAY}, doubled on each consecutive failure up to {@link #MAX_REBUILD_DELAY}.
+ * <p>
+ * Texts are folded to upper case without diacritics, so that candidates also cover accent-insensitive collations.
+ * The index is built in the background once the application is ready, and kept current after commit by the service
+ * write path. Writes on other nodes reach the index through the {@link CacheInvalidationBroadcaster}. Until the index is
+ * built, and for texts shorter than a trigram, {@link #search} gives no answer and the caller falls back to a scan.
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex implements LocalInvalidationTarget {
+
+    public static final String NAME = "article_search";
+
+    static final long MAX_INDEX_BYTES = 256L * 1024 * 1024;
+    static final Duration MIN_REBUILD_DELAY = Duration.ofMinutes(1);
+    static final Duration MAX_REBUILD_DELAY = Duration.ofHours(1);
+
+    private static final int GRAM = 3;
+    private static final int BUILD_BATCH_SIZE = 500;
+    private static final int COMPACT_MIN_DEAD = 1000;
+
+    // Field bits double as rank weights
+    private static final byte NAME_FIELD = 4;
+    private static final byte SUMMARY_FIELD = 2;
+    private static final byte CONTENT_FIELD = 1;
+    private static final int FIELD_BITS = 3;
+
+    private final ArticleRepository articleRepository;
+    private final Optional<CacheInvalidationBroadcaster> broadcaster;
+    private final long maxIndexBytes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Trigram -> ordinals of the articles holding the trigram, with their fields
+    private final Map<Long, Postings> postings = new HashMap<>();
+    // Article id -> current ordinal of the article
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    // Ordinal -> article id
+    private long[] idsByOrdinal = new long[BUILD_BATCH_SIZE];
+    private final BitSet dead = new BitSet();
+    private int nextOrdinal;
+    private int deadCount;
+    private long indexBytes;
+    // Articles written while the index is being built, which the build must not overwrite with older text
+    private final Set<Long> writtenDuringBuild = new HashSet<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "article-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean building;
+    private boolean compactionScheduled;
+    private volatile boolean ready;
+    // Delay before the next rebuild of a dropped or failed index, reset by a successful build
+    private Duration rebuildDelay = MIN_REBUILD_DELAY;
+
+    @Autowired
+    public ArticleSearchIndex(ArticleRepository articleRepository,
+                              Optional<CacheInvalidationBroadcaster> broadcaster) {
+        this(articleRepository, broadcaster, MAX_INDEX_BYTES);
+    }
+
+    ArticleSearchIndex(ArticleRepository articleRepository, Optional<CacheInvalidationBroadcaster> broadcaster,
+                       long maxIndexBytes) {
+        this.articleRepository = articleRepository;
+        this.broadcaster = broadcaster;
+        this.maxIndexBytes = maxIndexBytes;
+    }
+
+    @PostConstruct
+    public void registerForRemoteInvalidation() {
+        broadcaster.ifPresent(b -> b.register(this));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        executor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Search the articles whose name, summary or content may contain a text, ignoring case
+     *
+     * @param text  Searched text
+     * @param limit Maximum number of ids returned
+     * @return Candidate ids, best ranked first, or empty if the index cannot answer (not built yet, or text too short)
+     */
+    public Optional<List<Long>> search(String text, int limit) {
+        if (!ready || text == null) {
+            return Optional.empty();
+        }
+        long[] grams = trigrams(fold(text));
+        if (grams.length == 0) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<Postings> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                Postings posting = postings.get(gram);
+                if (posting == null) {
+                    return Optional.of(List.of());
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(Postings::length));
+
+            // Walk the shortest list, and move the others forward to each of its ordinals
+            Cursor driver = lists.get(0).cursor();
+            Cursor[] others = new Cursor[lists.size() - 1];
+            for (int i = 0; i < others.length; i++) {
+                others[i] = lists.get(i + 1).cursor();
+            }
+            List<long[]> candidates = new ArrayList<>();
+            scan:
+            while (driver.next()) {
+                int ordinal = driver.ordinal;
+                int fields = driver.fields;
+                for (int i = 0; i < others.length && fields != 0; i++) {
+                    if (!others[i].advanceTo(ordinal)) {
+                        break scan;
+                    }
+                    fields = others[i].ordinal == ordinal ? fields & others[i].fields : 0;
+                }
+                if (fields != 0 && !dead.get(ordinal)) {
+                    candidates.add(new long[]{idsByOrdinal[ordinal], fields});
+                }
+            }
+
+            // Best fields first, then the most recent articles
+            candidates.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(b[0], a[0]));
+            List<Long> ids = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (int i = 0; i < candidates.size() && i < limit; i++) {
+                ids.add(candidates.get(i)[0]);
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index the text of a written article once the current transaction commits
+     */
+    public void indexAfterCommit(Article article) {
+        ArticleText text = new ArticleText(article.getId(), article.getName(), article.getSummary(), article.getContent());
+        afterCommit(() -> {
+            index(text);
+            broadcaster.ifPresent(b -> b.publishEvict(NAME, text.id()));
+        });
+    }
+
+    /**
+     * Remove a deleted article once the current transaction commits
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            remove(id);
+            broadcaster.ifPresent(b -> b.publishEvict(NAME, id));
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * An article was written on another node: read its text again
+     */
+    @Override
+    public void evictLocal(Object key) {
+        Long id = Long.valueOf(key.toString());
+        executor.execute(() -> articleRepository.findTextById(id).ifPresentOrElse(this::index, () -> remove(id)));
+    }
+
+    @Override
+    public void clearLocal() {
+        executor.execute(this::rebuild);
+    }
+
+    /**
+     * Rebuild the index from the database, in id order
+     */
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clearLocked();
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long lastId = 0;
+            List<ArticleText> batch;
+            do {
+                batch = articleRepository.findTextAfter(lastId, Limit.of(BUILD_BATCH_SIZE));
+                for (ArticleText text : batch) {
+                    indexFromBuild(text);
+                    lastId = text.id();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                postings.values().forEach(Postings::trim);
+                indexBytes = postings.values().stream().mapToLong(Postings::capacity).sum();
+                ready = true;
+                rebuildDelay = MIN_REBUILD_DELAY;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Built article search index of {} articles ({} posting bytes) in {} ms",
+                    documentCount(), indexBytes(), System.currentTimeMillis() - start);
+        } catch (IndexFullException e) {
+            clear();
+            log.error("Article search index dropped: {}, text search scans the table until it is rebuilt in {}",
+                    e.getMessage(), scheduleRebuild());
+        } catch (Exception e) {
+            clear();
+            log.error("Error building article search index, text search scans the table until it is rebuilt in {}: {}",
+                    scheduleRebuild(), e.getMessage(), e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                writtenDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void indexFromBuild(ArticleText text) {
+        Map<Long, Byte> fields = fieldsByTrigram(text);
+        lock.writeLock().lock();
+        try {
+            if (!writtenDuringBuild.contains(text.id())) {
+                put(text.id(), fields);
+            }
+            if (indexBytes > maxIndexBytes) {
+                throw new IndexFullException(indexBytes, maxIndexBytes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void index(ArticleText text) {
+        Map<Long, Byte> fields = fieldsByTrigram(text);
+        lock.writeLock().lock();
+        try {
+            // A dropped index takes no writes until it is rebuilt
+            if (!ready && !building) {
+                return;
+            }
+            removeLocked(text.id());
+            put(text.id(), fields);
+            if (building) {
+                writtenDuringBuild.add(text.id());
+            }
+            scheduleCompactionLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (building) {
+                writtenDuringBuild.add(id);
+            }
+            scheduleCompactionLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrite the posting lists without the dead ordinals, renumbering the live ones in the same order
+     */
+    void compact() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            compactionScheduled = false;
+            int[] renumbered = new int[nextOrdinal];
+            long[] ids = new long[Math.max(BUILD_BATCH_SIZE, ordinals.size())];
+            int live = 0;
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (dead.get(ordinal)) {
+                    renumbered[ordinal] = -1;
+                } else {
+                    renumbered[ordinal] = live;
+                    ids[live++] = idsByOrdinal[ordinal];
+                }
+            }
+
+            indexBytes = 0;
+            Iterator<Map.Entry<Long, Postings>> entries = postings.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, Postings> entry = entries.next();
+                Postings compacted = new Postings();
+                Cursor cursor = entry.getValue().cursor();
+                while (cursor.next()) {
+                    if (renumbered[cursor.ordinal] >= 0) {
+                        compacted.append(renumbered[cursor.ordinal], cursor.fields);
+                    }
+                }
+                if (compacted.length() == 0) {
+                    entries.remove();
+                } else {
+                    compacted.trim();
+                    entry.setValue(compacted);
+                    indexBytes += compacted.capacity();
+                }
+            }
+            ordinals.replaceAll((id, ordinal) -> renumbered[ordinal]);
+            idsByOrdinal = ids;
+            nextOrdinal = live;
+            dead.clear();
+            deadCount = 0;
+
+            if (indexBytes > maxIndexBytes) {
+                log.error("Article search index dropped: {}, text search scans the table until it is rebuilt in {}",
+                        new IndexFullException(indexBytes, maxIndexBytes).getMessage(), scheduleRebuild());
+                ready = false;
+                clearLocked();
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Compacted article search index to {} articles in {} ms", documentCount(),
+                System.currentTimeMillis() - start);
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long indexBytes() {
+        lock.readLock().lock();
+        try {
+            return indexBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long id, Map<Long, Byte> fields) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == idsByOrdinal.length) {
+            idsByOrdinal = Arrays.copyOf(idsByOrdinal, ordinal + (ordinal >> 1));
+        }
+        idsByOrdinal[ordinal] = id;
+        ordinals.put(id, ordinal);
+        for (Map.Entry<Long, Byte> entry : fields.entrySet()) {
+            indexBytes += postings.computeIfAbsent(entry.getKey(), gram -> new Postings())
+                    .append(ordinal, entry.getValue());
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            dead.set(ordinal);
+            deadCount++;
+        }
+    }
+
+    private void scheduleCompactionLocked() {
+        boolean mostlyDead = deadCount >= COMPACT_MIN_DEAD && deadCount * 4L >= nextOrdinal;
+        if (!compactionScheduled && (mostlyDead || indexBytes > maxIndexBytes)) {
+            compactionScheduled = true;
+            executor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Schedule a rebuild of a dropped or failed index, backing off on consecutive failures
+     *
+     * @return Delay before the rebuild
+     */
+    private Duration scheduleRebuild() {
+        lock.writeLock().lock();
+        try {
+            Duration delay = rebuildDelay;
+            Duration doubled = delay.multipliedBy(2);
+            rebuildDelay = doubled.compareTo(MAX_REBUILD_DELAY) < 0 ? doubled : MAX_REBUILD_DELAY;
+            if (!executor.isShutdown()) {
+                executor.schedule(this::rebuild, delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return delay;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearLocked() {
+        postings.clear();
+        ordinals.clear();
+        idsByOrdinal = new long[BUILD_BATCH_SIZE];
+        dead.clear();
+        nextOrdinal = 0;
+        deadCount = 0;
+        indexBytes = 0;
+        writtenDuringBuild.clear();
+    }
+
+    private static Map<Long, Byte> fieldsByTrigram(ArticleText text) {
+        Map<Long, Byte> fields = new HashMap<>();
+        addField(fields, text.name(), NAME_FIELD);
+        addField(fields, text.summary(), SUMMARY_FIELD);
+        addField(fields, text.content(), CONTENT_FIELD);
+        return fields;
+    }
+
+    private static void addField(Map<Long, Byte> fields, String value, byte field) {
+        if (value == null) {
+            return;
+        }
+        for (long gram : trigrams(fold(value))) {
+            fields.merge(gram, field, (a, b) -> (byte) (a | b));
+        }
+    }
+
+    /**
+     * Upper case without diacritics, char by char so that a contained text stays contained
+     */
+    static String fold(String value) {
+        String decomposed = Normalizer.normalize(value.toUpperCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Distinct trigrams of a folded text, three UTF-16 chars packed in a long
+     */
+    static long[] trigrams(String folded) {
+        if (folded.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[folded.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) folded.charAt(i) << 32 | (long) folded.charAt(i + 1) << 16 | folded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Posting list of a trigram: varints of {@code (ordinal delta << FIELD_BITS) | fields}, in ordinal order
+     */
+    private static final class Postings {
+
+        private byte[] data = new byte[8];
+        private int length;
+        private int lastOrdinal = -1;
+
+        /**
+         * Append an ordinal larger than every ordinal of the list
+         *
+         * @return Number of bytes the list grew by
+         */
+        int append(int ordinal, int fields) {
+            int grown = 0;
+            if (length + 10 > data.length) {
+                int capacity = Math.max(length + 10, data.length + (data.length >> 1));
+                grown = capacity - data.length;
+                data = Arrays.copyOf(data, capacity);
+            }
+            long value = (long) (ordinal - lastOrdinal) << FIELD_BITS | fields;
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+            lastOrdinal = ordinal;
+            return grown;
+        }
+
+        void trim() {
+            data = Arrays.copyOf(data, length);
+        }
+
+        int length() {
+            return length;
+        }
+
+        int capacity() {
+            return data.length;
+        }
+
+        Cursor cursor() {
+            return new Cursor(data, length);
+        }
+    }
+
+    /**
+     * Forward reader of a posting list
+     */
+    private static final class Cursor {
+
+        private final byte[] data;
+        private final int length;
+        private int position;
+        int ordinal = -1;
+        int fields;
+
+        Cursor(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            ordinal += (int) (value >>> FIELD_BITS);
+            fields = (int) (value & ((1 << FIELD_BITS) - 1));
+            return true;
+        }
+
+        /**
+         * Move to the first entry at or after an ordinal
+         *
+         * @return false if the list has no such entry
+         */
+        boolean advanceTo(int target) {
+            while (ordinal < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class IndexFullException extends RuntimeException {
+
+        IndexFullException(long indexBytes, long maxIndexBytes) {
+            super("posting lists take " + indexBytes + " bytes, above the " + maxIndexBytes + " bytes limit");
+        }
+    }
+}
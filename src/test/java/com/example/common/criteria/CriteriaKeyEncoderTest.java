@@ -0,0 +1,128 @@
+package com.example.common.criteria;
+
+import com.example.model.criteria.ArticleCriteria;
+import com.example.model.criteria.CategoryCriteria;
+import com.example.model.enumeration.ArticleStatus;
+import com.example.tech.jhipster.service.filter.Filter;
+import com.example.tech.jhipster.service.filter.LongFilter;
+import com.example.tech.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CriteriaKeyEncoderTest {
+
+    @Test
+    void equalCriteriaShareKey() {
+        String key = CriteriaKeyEncoder.encode(articleCriteria("java", ArticleStatus.ACTIVE));
+
+        assertThat(key).hasSize(22).matches("[A-Za-z0-9_-]+");
+        assertThat(CriteriaKeyEncoder.encode(articleCriteria("java", ArticleStatus.ACTIVE))).isEqualTo(key);
+        assertThat(CriteriaKeyEncoder.encode(articleCriteria("java", ArticleStatus.INACTIVE))).isNotEqualTo(key);
+        assertThat(CriteriaKeyEncoder.encode(articleCriteria("kotlin", ArticleStatus.ACTIVE))).isNotEqualTo(key);
+    }
+
+    @Test
+    void keyDoesNotDependOnSettingOrder() {
+        ArticleCriteria nameFirst = new ArticleCriteria();
+        nameFirst.setName(new StringFilter().setContains("java"));
+        nameFirst.setStatus(statusEquals(ArticleStatus.ACTIVE));
+
+        ArticleCriteria statusFirst = new ArticleCriteria();
+        statusFirst.setStatus(statusEquals(ArticleStatus.ACTIVE));
+        statusFirst.setName(new StringFilter().setContains("java"));
+
+        assertThat(CriteriaKeyEncoder.encode(statusFirst)).isEqualTo(CriteriaKeyEncoder.encode(nameFirst));
+    }
+
+    @Test
+    void equivalentConditionsShareKey() {
+        assertThat(CriteriaKeyEncoder.encode(idIn(3L, 1L, 2L, 1L))).isEqualTo(CriteriaKeyEncoder.encode(idIn(1L, 2L, 3L)));
+        assertThat(CriteriaKeyEncoder.encode(idIn(7L))).isEqualTo(CriteriaKeyEncoder.encode(idEquals(7L)));
+        assertThat(CriteriaKeyEncoder.encode(articleCriteria("Java", null)))
+                .isEqualTo(CriteriaKeyEncoder.encode(articleCriteria("JAVA", null)));
+
+        // equals shadows in, as in the QueryService builders
+        ArticleCriteria shadowed = idEquals(7L);
+        shadowed.getId().setIn(List.of(8L, 9L));
+        assertThat(CriteriaKeyEncoder.encode(shadowed)).isEqualTo(CriteriaKeyEncoder.encode(idEquals(7L)));
+    }
+
+    @Test
+    void sameFiltersOfDifferentCriteriaTypesDoNotShareKey() {
+        CategoryCriteria category = new CategoryCriteria();
+        LongFilter id = new LongFilter();
+        id.setEquals(7L);
+        category.setId(id);
+
+        assertThat(CriteriaKeyEncoder.encode(category)).isNotEqualTo(CriteriaKeyEncoder.encode(idEquals(7L)));
+    }
+
+    @Test
+    void emptyFiltersAreTheSameAsAbsentFilters() {
+        ArticleCriteria empty = new ArticleCriteria();
+        empty.setName(new StringFilter());
+        empty.setStatus(new Filter<>());
+
+        assertThat(CriteriaKeyEncoder.encode(null)).isEqualTo(CriteriaKeyEncoder.UNFILTERED);
+        assertThat(CriteriaKeyEncoder.encode(new ArticleCriteria())).isEqualTo(CriteriaKeyEncoder.UNFILTERED);
+        assertThat(CriteriaKeyEncoder.encode(empty)).isEqualTo(CriteriaKeyEncoder.UNFILTERED);
+
+        ArticleCriteria filtered = articleCriteria("java", null);
+        ArticleCriteria filteredWithEmpty = articleCriteria("java", null);
+        filteredWithEmpty.setPath(new StringFilter());
+        assertThat(CriteriaKeyEncoder.encode(filteredWithEmpty)).isEqualTo(CriteriaKeyEncoder.encode(filtered));
+    }
+
+    @Test
+    void isUnfilteredOnlyForCriteriaWithoutCondition() {
+        ArticleCriteria empty = new ArticleCriteria();
+        empty.setName(new StringFilter());
+
+        ArticleCriteria specified = new ArticleCriteria();
+        specified.setPath(new StringFilter());
+        specified.getPath().setSpecified(false);
+
+        assertThat(CriteriaKeyEncoder.isUnfiltered(null)).isTrue();
+        assertThat(CriteriaKeyEncoder.isUnfiltered(new ArticleCriteria())).isTrue();
+        assertThat(CriteriaKeyEncoder.isUnfiltered(empty)).isTrue();
+        assertThat(CriteriaKeyEncoder.isUnfiltered(specified)).isFalse();
+        assertThat(CriteriaKeyEncoder.isUnfiltered(articleCriteria("java", null))).isFalse();
+        assertThat(CriteriaKeyEncoder.encode(specified)).isNotEqualTo(CriteriaKeyEncoder.UNFILTERED);
+    }
+
+    private static ArticleCriteria articleCriteria(String nameContains, ArticleStatus status) {
+        ArticleCriteria criteria = new ArticleCriteria();
+        if (nameContains != null) {
+            criteria.setName(new StringFilter().setContains(nameContains));
+        }
+        if (status != null) {
+            criteria.setStatus(statusEquals(status));
+        }
+        return criteria;
+    }
+
+    private static Filter<ArticleStatus> statusEquals(ArticleStatus status) {
+        Filter<ArticleStatus> filter = new Filter<>();
+        filter.setEquals(status);
+        return filter;
+    }
+
+    private static ArticleCriteria idEquals(Long id) {
+        LongFilter filter = new LongFilter();
+        filter.setEquals(id);
+        ArticleCriteria criteria = new ArticleCriteria();
+        criteria.setId(filter);
+        return criteria;
+    }
+
+    private static ArticleCriteria idIn(Long... ids) {
+        LongFilter filter = new LongFilter();
+        filter.setIn(List.of(ids));
+        ArticleCriteria criteria = new ArticleCriteria();
+        criteria.setId(filter);
+        return criteria;
+    }
+}
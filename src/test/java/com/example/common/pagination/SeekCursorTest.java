@@ -0,0 +1,69 @@
+package com.example.common.pagination;
+
+import com.example.common.exception.RequestValidationException;
+import com.example.model.enumeration.ArticleStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeekCursorTest {
+
+    @Test
+    void roundTripsInstantValue() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123456Z");
+        SeekCursor cursor = new SeekCursor("createdAt", Sort.Direction.DESC, String.valueOf(createdAt), 42L);
+
+        SeekCursor decoded = SeekCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(Instant.parse(decoded.value())).isEqualTo(createdAt);
+    }
+
+    @Test
+    void roundTripsEnumValue() {
+        SeekCursor cursor = new SeekCursor("status", Sort.Direction.ASC, String.valueOf(ArticleStatus.INACTIVE), 7L);
+
+        SeekCursor decoded = SeekCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(ArticleStatus.valueOf(decoded.value())).isEqualTo(ArticleStatus.INACTIVE);
+    }
+
+    @Test
+    void roundTripsValueContainingSeparator() {
+        SeekCursor cursor = new SeekCursor("name", Sort.Direction.ASC, "first line\nsecond line\n", 3L);
+
+        assertThat(SeekCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesToUrlSafeToken() {
+        String token = new SeekCursor("name", Sort.Direction.ASC, "?/+ é", 1L).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertInvalid("not a cursor!");
+        assertInvalid(token("name\nASC\n1"));
+        assertInvalid(token("name\nSIDEWAYS\n1\nvalue"));
+        assertInvalid(token("name\nASC\none\nvalue"));
+    }
+
+    private static void assertInvalid(String token) {
+        assertThatThrownBy(() -> SeekCursor.decode(token))
+                .isInstanceOf(RequestValidationException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_CURSOR");
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.common.service;
+
+import com.example.common.exception.RequestValidationException;
+import com.example.common.pagination.SeekCursor;
+import com.example.entity.Article;
+import com.example.entity.BaseEntity_;
+import com.example.model.enumeration.ArticleStatus;
+import com.example.service.query.ArticleQueryService;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BaseQueryServiceTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-05-01T10:15:30Z");
+
+    private final ArticleQueryService queryService = new ArticleQueryService(null);
+
+    private Root<Article> root;
+    private CriteriaBuilder cb;
+    private Path<Long> id;
+    private Path<Object> key;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        root = mock(Root.class);
+        cb = mock(CriteriaBuilder.class);
+        id = mock(Path.class);
+        key = mock(Path.class);
+        when(root.get(BaseEntity_.id)).thenReturn(id);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void ascendingSeekBreaksTiesOnEqualSortKeysById() {
+        seekOn("createdAt", Instant.class);
+        Predicate keyAfter = mock(Predicate.class);
+        Predicate idAfter = mock(Predicate.class);
+        Predicate sameKey = mock(Predicate.class);
+        Predicate tie = mock(Predicate.class);
+        Predicate seek = mock(Predicate.class);
+        doReturn(keyAfter).when(cb).greaterThan(rawKey(), (Comparable) CREATED_AT);
+        when(cb.greaterThan(id, 42L)).thenReturn(idAfter);
+        when(cb.equal(key, CREATED_AT)).thenReturn(sameKey);
+        when(cb.and(sameKey, idAfter)).thenReturn(tie);
+        when(cb.or(keyAfter, tie)).thenReturn(seek);
+
+        Predicate predicate = toPredicate(new SeekCursor("createdAt", Sort.Direction.ASC, CREATED_AT.toString(), 42L));
+
+        assertThat(predicate).isSameAs(seek);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void descendingSeekBreaksTiesWithDescendingIds() {
+        seekOn("status", ArticleStatus.class);
+        Predicate keyBefore = mock(Predicate.class);
+        Predicate idBefore = mock(Predicate.class);
+        Predicate sameKey = mock(Predicate.class);
+        Predicate tie = mock(Predicate.class);
+        Predicate seek = mock(Predicate.class);
+        doReturn(keyBefore).when(cb).lessThan(rawKey(), (Comparable) ArticleStatus.INACTIVE);
+        when(cb.lessThan(id, 42L)).thenReturn(idBefore);
+        when(cb.equal(key, ArticleStatus.INACTIVE)).thenReturn(sameKey);
+        when(cb.and(sameKey, idBefore)).thenReturn(tie);
+        when(cb.or(keyBefore, tie)).thenReturn(seek);
+
+        Predicate predicate = toPredicate(new SeekCursor("status", Sort.Direction.DESC, "INACTIVE", 42L));
+
+        assertThat(predicate).isSameAs(seek);
+    }
+
+    @Test
+    void seekByIdNeedsNoTieBreaker() {
+        Predicate idAfter = mock(Predicate.class);
+        when(cb.greaterThan(id, 42L)).thenReturn(idAfter);
+
+        Predicate predicate = toPredicate(new SeekCursor(BaseEntity_.ID, Sort.Direction.ASC, "42", 42L));
+
+        assertThat(predicate).isSameAs(idAfter);
+        verify(root).get(BaseEntity_.id);
+    }
+
+    @Test
+    void rejectsCursorValueNotMatchingPropertyType() {
+        seekOn("createdAt", Instant.class);
+
+        assertThatThrownBy(() -> toPredicate(new SeekCursor("createdAt", Sort.Direction.ASC, "yesterday", 42L)))
+                .isInstanceOf(RequestValidationException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_CURSOR");
+    }
+
+    private void seekOn(String property, Class<?> type) {
+        when(root.get(property)).thenReturn(key);
+        doReturn(type).when(key).getJavaType();
+    }
+
+    private Predicate toPredicate(SeekCursor cursor) {
+        Specification<Article> specification = queryService.createSeekSpecification(cursor);
+        return specification.toPredicate(root, null, cb);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Path<Comparable> rawKey() {
+        return (Path) key;
+    }
+}
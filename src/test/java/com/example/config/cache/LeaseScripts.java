@@ -0,0 +1,48 @@
+package com.example.config.cache;
+
+import com.example.support.redis.RespServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Java twins of the {@link LeasedCache} and {@link RefreshingCache} Lua scripts, for the in-process RESP server
+ */
+public final class LeaseScripts {
+
+    private LeaseScripts() {
+    }
+
+    public static RespServer register(RespServer server) {
+        return server
+                .withScript(new String(LeasedCache.WRITE_IF_LEASED, StandardCharsets.UTF_8), (redis, keys, args) -> {
+                    if (!Arrays.equals((byte[]) redis.call("GET", keys.get(1)), args.get(0))) {
+                        return 0L;
+                    }
+                    if (Long.parseLong(new String(args.get(2), StandardCharsets.US_ASCII)) > 0) {
+                        redis.call("SET", keys.get(0), args.get(1), "PX", args.get(2));
+                    } else {
+                        redis.call("SET", keys.get(0), args.get(1));
+                    }
+                    redis.call("DEL", keys.get(1));
+                    return 1L;
+                })
+                .withScript(new String(LeasedCache.RELEASE_LEASE, StandardCharsets.UTF_8), (redis, keys, args) -> {
+                    if (Arrays.equals((byte[]) redis.call("GET", keys.get(0)), args.get(0))) {
+                        return redis.call("DEL", keys.get(0));
+                    }
+                    return 0L;
+                })
+                .withScript(new String(RefreshingCache.WRITE_IF_UNCHANGED, StandardCharsets.UTF_8), (redis, keys, args) -> {
+                    if (!Arrays.equals((byte[]) redis.call("GET", keys.get(0)), args.get(0))) {
+                        return 0L;
+                    }
+                    if (Long.parseLong(new String(args.get(2), StandardCharsets.US_ASCII)) > 0) {
+                        redis.call("SET", keys.get(0), args.get(1), "PX", args.get(2));
+                    } else {
+                        redis.call("SET", keys.get(0), args.get(1));
+                    }
+                    return 1L;
+                });
+    }
+}
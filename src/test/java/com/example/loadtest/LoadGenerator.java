@@ -0,0 +1,210 @@
+package com.example.loadtest;
+
+import com.example.loadtest.LoadTestOptions.Operation;
+import com.example.support.WordText;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the article endpoints with a weighted operation mix and records the latencies.
+ * <p>
+ * The closed model runs a fixed number of users sending requests back to back. The open model sends requests at a
+ * fixed rate whatever the response times, measuring latency from the intended send time so that a stalled server
+ * is not hidden by coordinated omission.
+ */
+class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final long firstArticleId;
+    private final long lastArticleId;
+    private final long categoryCount;
+    private final AtomicLong created = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(String baseUrl, LoadTestOptions options, long firstArticleId, long lastArticleId, long categoryCount) {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.firstArticleId = firstArticleId;
+        this.lastArticleId = lastArticleId;
+        this.categoryCount = categoryCount;
+
+        List<Operation> weighted = new ArrayList<>(options.mix().keySet());
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Apply the load for a duration
+     *
+     * @return Latencies and errors per operation
+     */
+    Results run(Duration duration) throws InterruptedException {
+        Results results = new Results();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        if (options.model() == LoadTestOptions.Model.CLOSED) {
+            List<Thread> users = new ArrayList<>(options.concurrency());
+            for (int i = 0; i < options.concurrency(); i++) {
+                users.add(Thread.ofVirtual().start(() -> {
+                    while (System.nanoTime() < end) {
+                        Operation operation = nextOperation();
+                        long sent = System.nanoTime();
+                        results.record(operation, sent, send(operation));
+                    }
+                }));
+            }
+            for (Thread user : users) {
+                user.join();
+            }
+        } else {
+            long period = TimeUnit.SECONDS.toNanos(1) / options.rate();
+            List<Thread> inFlight = new ArrayList<>();
+            for (long intended = start; intended < end; intended += period) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedSend = intended;
+                Operation operation = nextOperation();
+                inFlight.add(Thread.ofVirtual().start(() -> results.record(operation, intendedSend, send(operation))));
+            }
+            for (Thread request : inFlight) {
+                request.join();
+            }
+        }
+
+        results.elapsedNanos = System.nanoTime() - start;
+        return results;
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    // Returns null on success, or an error description
+    private String send(Operation operation) {
+        HttpRequest request = switch (operation) {
+            case GET -> get("/api/articles/" + nextArticleId());
+            case SEARCH -> get("/api/articles/search?name.contains=" + ThreadLocalRandom.current().nextInt(1, 100)
+                    + "&page=" + ThreadLocalRandom.current().nextInt(5) + "&size=20");
+            case PATCH -> json("/api/articles/" + nextArticleId(), "PATCH",
+                    "{\"fields\":{\"summary\":\"Patched " + System.nanoTime() + "\"}}");
+            case CREATE -> {
+                long n = created.incrementAndGet();
+                yield json("/api/articles", "POST", """
+                        {"name":"Load %1$s-%2$d","path":"/load/%1$s/%2$d","summary":"Created by the load test",\
+                        "content":"%3$s","categoryId":%4$d,"status":"ACTIVE","isActive":true}"""
+                        .formatted(runId, n, WordText.of(options.contentSize()),
+                                1 + ThreadLocalRandom.current().nextLong(categoryCount)));
+            }
+        };
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                return "HTTP " + response.statusCode() + ": " + abbreviate(response.body());
+            }
+            return null;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    // Skewed towards low ids, so that a hot set of articles receives most reads
+    private long nextArticleId() {
+        double position = Math.pow(ThreadLocalRandom.current().nextDouble(), options.skew());
+        return firstArticleId + (long) (position * (lastArticleId - firstArticleId + 1));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+
+    /**
+     * Latency histograms (microseconds) and error counts per operation
+     */
+    static class Results {
+        final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+        long elapsedNanos;
+
+        Results() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, long sentNanos, String error) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos);
+            latencies.get(operation).recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+            if (error != null) {
+                errors.get(operation).increment();
+                firstErrors.putIfAbsent(operation, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.loadtest;
+
+import com.example.SpringRedisSetupApplication;
+import com.example.config.cache.LeaseScripts;
+import com.example.loadtest.LoadTestOptions.Operation;
+import com.example.repository.ArticleRepository;
+import com.example.repository.CategoryRepository;
+import com.example.service.cache.CacheWarmupService;
+import com.example.support.redis.RespServer;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the article REST endpoints.
+ * <p>
+ * For each cache mode the application is booted on an in-memory H2 database, with caching backed by the in-process
+ * {@link RespServer} or disabled, then seeded and driven with a mix of reads, searches, partial updates and creates.
+ * Latency percentiles and throughput are reported per operation, and compared across cache modes at the end.
+ * <p>
+ * Run with {@code ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--duration=30s --model=open --rate=800"};
+ * see {@link LoadTestOptions} for the options.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        List<Summary> summaries = new ArrayList<>();
+
+        try (RespServer redis = LeaseScripts.register(RespServer.start()).withLatency(options.redisLatency())) {
+            for (boolean cacheEnabled : options.cacheModes()) {
+                redis.flushAll();
+                summaries.add(run(options, cacheEnabled, redis));
+            }
+        }
+
+        if (summaries.size() > 1) {
+            System.out.println();
+            System.out.println("== Comparison ==");
+            System.out.printf("%-10s %10s %10s %10s%n", "cache", "req/s", "p50 ms", "p99 ms");
+            for (Summary summary : summaries) {
+                System.out.printf(Locale.ROOT, "%-10s %10.1f %10.2f %10.2f%n", summary.mode(), summary.throughput(),
+                        summary.p50Millis(), summary.p99Millis());
+            }
+        }
+    }
+
+    private static Summary run(LoadTestOptions options, boolean cacheEnabled, RespServer redis) throws Exception {
+        String mode = cacheEnabled ? "enabled" : "disabled";
+        try (ConfigurableApplicationContext context = boot(mode, cacheEnabled, redis)) {
+            long[] articleIds = SeedData.seed(context.getBean(CategoryRepository.class),
+                    context.getBean(ArticleRepository.class), context.getBean(TransactionTemplate.class), options);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path", "");
+            LoadGenerator generator = new LoadGenerator(baseUrl, options, articleIds[0], articleIds[1],
+                    options.categories());
+            try {
+                if (!options.warmup().isZero()) {
+                    generator.run(options.warmup());
+                }
+                LoadGenerator.Results results = generator.run(options.duration());
+                return report(mode, options, results);
+            } finally {
+                generator.close();
+                // Its executor is not tied to the context lifecycle and would keep the JVM alive
+                context.getBeanProvider(CacheWarmupService.class).ifAvailable(CacheWarmupService::shutdown);
+            }
+        }
+    }
+
+    // Passed as command line arguments, which take precedence over application.yaml
+    private static ConfigurableApplicationContext boot(String mode, boolean cacheEnabled, RespServer redis) {
+        return new SpringApplicationBuilder(SpringRedisSetupApplication.class, LoadTestConfiguration.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--application.redis.enabled=" + cacheEnabled,
+                "--application.redis.mode=STANDALONE",
+                "--application.redis.standalone.host=" + redis.getHost(),
+                "--application.redis.standalone.port=" + redis.getPort(),
+                "--application.redis.cache.entities.category.warmup-on-startup=false",
+                "--application.redis.cache.entities.article.warmup-on-startup=false");
+    }
+
+    private static Summary report(String mode, LoadTestOptions options, LoadGenerator.Results results) {
+        double seconds = results.elapsedNanos / 1e9;
+        Histogram total = new Histogram(3);
+
+        System.out.println();
+        System.out.printf("== Cache %s: %s model, %s, %s ==%n", mode, options.model().name().toLowerCase(),
+                options.model() == LoadTestOptions.Model.CLOSED
+                        ? options.concurrency() + " users" : options.rate() + " req/s target",
+                options.duration());
+        System.out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = results.latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            errors += results.errors.get(operation).sum();
+            printRow(operation.name().toLowerCase(), histogram, results.errors.get(operation).sum(), seconds);
+        }
+        printRow("total", total, errors, seconds);
+        results.firstErrors.forEach((operation, error) ->
+                System.out.printf("first %s error: %s%n", operation.name().toLowerCase(), error));
+
+        return new Summary(mode, total.getTotalCount() / seconds, millis(total.getValueAtPercentile(50)),
+                millis(total.getValueAtPercentile(99)));
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf(Locale.ROOT, "%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+    }
+
+    private record Summary(String mode, double throughput, double p50Millis, double p99Millis) {
+    }
+}
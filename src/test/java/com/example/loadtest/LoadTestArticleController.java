@@ -0,0 +1,50 @@
+package com.example.loadtest;
+
+import com.example.common.controller.BaseController;
+import com.example.common.response.BaseResponse;
+import com.example.common.service.BaseService;
+import com.example.entity.Article;
+import com.example.model.criteria.ArticleCriteria;
+import com.example.model.dto.ArticleDTO;
+import com.example.model.dto.PartialUpdateDTO;
+import com.example.service.ArticleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Article CRUD endpoints driven by the load test, which the application does not expose itself
+ */
+@RestController
+@RequestMapping("/api/articles")
+@RequiredArgsConstructor
+class LoadTestArticleController extends BaseController<Article, ArticleDTO, ArticleCriteria> {
+
+    private final ArticleService articleService;
+
+    @Override
+    protected BaseService<Article, ArticleDTO, ArticleCriteria> getService() {
+        return articleService;
+    }
+
+    /**
+     * No article field is partially updateable, the summary is patched through a full update of the current article
+     */
+    @Override
+    @PatchMapping("/{id}")
+    public ResponseEntity<BaseResponse<ArticleDTO>> partialUpdate(@PathVariable Long id,
+                                                                  @RequestBody PartialUpdateDTO<ArticleDTO> partialDTO) {
+        // Cached DTOs are shared, the update works on a copy
+        ArticleDTO dto = new ArticleDTO();
+        BeanUtils.copyProperties(articleService.findById(id), dto);
+        dto.setSummary(String.valueOf(partialDTO.getFields().get("summary")));
+        // Last writer wins, like a patch without version
+        dto.setVersion(null);
+        return update(id, dto);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.loadtest;
+
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Additional configuration of the application booted by {@link LoadTest}: fills the audit columns of
+ * {@link com.example.entity.BaseEntity} for the seeded and created rows
+ */
+@EnableJpaAuditing
+class LoadTestConfiguration {
+}
@@ -0,0 +1,151 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test options, given as {@code --name=value} arguments
+ *
+ * @param categories   Categories seeded
+ * @param articles     Articles seeded
+ * @param contentSize  Content size of seeded and created articles, in characters
+ * @param warmup       Load applied before measuring, per cache mode
+ * @param duration     Measured load duration, per cache mode
+ * @param model        Closed (fixed number of users) or open (fixed arrival rate) workload model
+ * @param concurrency  Users of the closed model
+ * @param rate         Requests per second of the open model
+ * @param mix          Relative weight of each operation
+ * @param skew         Skew of the article ids read: 1 is uniform, higher values favour a hot set of low ids
+ * @param cacheModes   Cache modes run one after the other
+ * @param redisLatency Round trip latency injected into the Redis stand-in
+ */
+record LoadTestOptions(int categories, int articles, int contentSize, Duration warmup, Duration duration,
+                       Model model, int concurrency, int rate, Map<Operation, Integer> mix, double skew,
+                       List<Boolean> cacheModes, Duration redisLatency) {
+
+    enum Model {
+        CLOSED, OPEN
+    }
+
+    enum Operation {
+        GET, SEARCH, PATCH, CREATE
+    }
+
+    static final String USAGE = """
+            Usage: LoadTest [--name=value ...]
+              --categories=20          categories seeded, > 0
+              --articles=2000          articles seeded, > 0
+              --content-size=4096      content size of the articles, in characters, >= 0
+              --warmup=10s             load applied before measuring, >= 0
+              --duration=30s           measured load duration, > 0
+              --model=closed           closed (--concurrency users) or open (--rate requests per second)
+              --concurrency=32         users of the closed model, > 0
+              --rate=500               requests per second of the open model, > 0
+              --mix=get:70,search:15,patch:10,create:5
+                                       relative weight of each operation
+              --skew=2                 skew of the article ids read, >= 1 (1 is uniform)
+              --cache=both             on, off or both
+              --redis-latency=0ms      round trip latency injected into the Redis stand-in, >= 0""";
+
+    /**
+     * @throws IllegalArgumentException for unknown, malformed or out of range options, with the usage in the message
+     */
+    static LoadTestOptions parse(String[] args) {
+        try {
+            return doParse(args);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(e.getMessage() + System.lineSeparator() + USAGE, e);
+        }
+    }
+
+    private static LoadTestOptions doParse(String[] args) {
+        Map<String, String> values = new HashMap<>(Map.of(
+                "categories", "20",
+                "articles", "2000",
+                "content-size", "4096",
+                "warmup", "10s",
+                "duration", "30s",
+                "model", "closed",
+                "concurrency", "32",
+                "rate", "500",
+                "mix", "get:70,search:15,patch:10,create:5",
+                "skew", "2"));
+        values.put("cache", "both");
+        values.put("redis-latency", "0ms");
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!values.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ", known options: " + values.keySet());
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.get("categories")),
+                Integer.parseInt(values.get("articles")),
+                Integer.parseInt(values.get("content-size")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                Model.valueOf(values.get("model").toUpperCase(Locale.ROOT)),
+                Integer.parseInt(values.get("concurrency")),
+                Integer.parseInt(values.get("rate")),
+                parseMix(values.get("mix")),
+                Double.parseDouble(values.get("skew")),
+                switch (values.get("cache")) {
+                    case "on" -> List.of(true);
+                    case "off" -> List.of(false);
+                    case "both" -> List.of(true, false);
+                    default -> throw new IllegalArgumentException("--cache must be on, off or both");
+                },
+                DurationStyle.detectAndParse(values.get("redis-latency")));
+        options.validate();
+        return options;
+    }
+
+    private void validate() {
+        require(categories > 0, "--categories must be positive");
+        require(articles > 0, "--articles must be positive");
+        require(contentSize >= 0, "--content-size must not be negative");
+        require(!warmup.isNegative(), "--warmup must not be negative");
+        require(duration.isPositive(), "--duration must be positive");
+        require(concurrency > 0, "--concurrency must be positive");
+        require(rate > 0, "--rate must be positive");
+        require(skew >= 1, "--skew must be at least 1");
+        require(!redisLatency.isNegative(), "--redis-latency must not be negative");
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("--mix expects operation:weight pairs, got: " + part);
+            }
+            int value = Integer.parseInt(weight[1].trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("--mix weights must not be negative, got: " + part);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), value);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
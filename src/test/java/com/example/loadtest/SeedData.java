@@ -0,0 +1,65 @@
+package com.example.loadtest;
+
+import com.example.entity.Article;
+import com.example.entity.Category;
+import com.example.model.enumeration.ArticleStatus;
+import com.example.repository.ArticleRepository;
+import com.example.repository.CategoryRepository;
+import com.example.support.WordText;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds categories and articles through the repositories, with word-like content of {@link WordText}
+ */
+final class SeedData {
+
+    private static final int BATCH_SIZE = 500;
+
+    private SeedData() {
+    }
+
+    /**
+     * @return Ids of the first and last seeded article
+     */
+    static long[] seed(CategoryRepository categoryRepository, ArticleRepository articleRepository,
+                       TransactionTemplate transactionTemplate, LoadTestOptions options) {
+        List<Category> categories = transactionTemplate.execute(status -> {
+            List<Category> batch = new ArrayList<>(options.categories());
+            for (int i = 1; i <= options.categories(); i++) {
+                Category category = new Category();
+                category.setName("Category " + i);
+                category.setPath("/categories/category-" + i);
+                batch.add(category);
+            }
+            return categoryRepository.saveAll(batch);
+        });
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int offset = 0; offset < options.articles(); offset += BATCH_SIZE) {
+            int from = offset;
+            List<Article> saved = transactionTemplate.execute(status -> {
+                List<Article> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = from + 1; i <= Math.min(from + BATCH_SIZE, options.articles()); i++) {
+                    Article article = new Article();
+                    article.setName("Article " + i);
+                    article.setPath("/articles/article-" + i);
+                    article.setSummary(WordText.of(300));
+                    article.setContent(WordText.of(options.contentSize()));
+                    article.setCategory(categories.get(i % categories.size()));
+                    article.setStatus(ArticleStatus.ACTIVE);
+                    batch.add(article);
+                }
+                return articleRepository.saveAll(batch);
+            });
+            for (Article article : saved) {
+                first = Math.min(first, article.getId());
+                last = Math.max(last, article.getId());
+            }
+        }
+        return new long[]{first, last};
+    }
+}
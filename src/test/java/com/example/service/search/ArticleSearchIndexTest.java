@@ -0,0 +1,155 @@
+package com.example.service.search;
+
+import com.example.model.projection.ArticleText;
+import com.example.repository.ArticleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleSearchIndexTest {
+
+    private final ArticleRepository articleRepository = mock(ArticleRepository.class);
+    private ArticleSearchIndex index;
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void searchRanksCandidatesByField() {
+        build(ArticleSearchIndex.MAX_INDEX_BYTES,
+                text(1L, null, null, "all about redis"),
+                text(2L, null, "Redis in short", null),
+                text(3L, "Redis caching", null, null),
+                text(4L, "Postgres", "no match here", "nothing"));
+
+        assertThat(index.search("redis", 10)).contains(List.of(3L, 2L, 1L));
+        assertThat(index.search("redis", 2)).contains(List.of(3L, 2L));
+        assertThat(index.search("mongo", 10)).contains(List.of());
+        assertThat(index.search("re", 10)).isEmpty();
+    }
+
+    @Test
+    void candidatesHoldEveryTrigramInTheSameField() {
+        build(ArticleSearchIndex.MAX_INDEX_BYTES, text(1L, "abc", null, "bcd"), text(2L, null, "xabcdx", null));
+
+        assertThat(index.search("abcd", 10)).contains(List.of(2L));
+        assertThat(index.search("abc", 10)).contains(List.of(1L, 2L));
+    }
+
+    @Test
+    void postingsRoundTripAcrossLargeOrdinalGaps() {
+        List<ArticleText> texts = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            texts.add(id == 1 || id == 150 || id == 300
+                    ? text(id, id == 150 ? "needle" : null, null, "a needle in a haystack")
+                    : text(id, "article " + id, null, "haystack " + id));
+        }
+        build(ArticleSearchIndex.MAX_INDEX_BYTES, texts.toArray(ArticleText[]::new));
+
+        assertThat(index.documentCount()).isEqualTo(300);
+        assertThat(index.search("needle", 10)).contains(List.of(150L, 300L, 1L));
+        assertThat(index.search("haystack", 1000)).get().asList().hasSize(300);
+    }
+
+    @Test
+    void searchAfterRemoveAndCompactReturnsOnlyLiveIds() {
+        build(ArticleSearchIndex.MAX_INDEX_BYTES,
+                text(1L, "Cache warmup", null, null),
+                text(2L, "Cache eviction", null, null),
+                text(3L, "Cache stampede", null, null),
+                text(4L, "Other", null, "cache content"));
+
+        index.remove(2L);
+        index.index(text(3L, "Thundering herd", null, "no longer about it"));
+        assertThat(index.search("cache", 10)).contains(List.of(1L, 4L));
+
+        long bytesBefore = index.indexBytes();
+        index.compact();
+
+        assertThat(index.documentCount()).isEqualTo(3);
+        assertThat(index.indexBytes()).isLessThan(bytesBefore);
+        assertThat(index.search("cache", 10)).contains(List.of(1L, 4L));
+        assertThat(index.search("herd", 10)).contains(List.of(3L));
+        assertThat(index.search("eviction", 10)).contains(List.of());
+
+        // Renumbered ordinals keep taking new articles
+        index.index(text(5L, "Cache aside", null, null));
+        assertThat(index.search("cache", 10)).contains(List.of(5L, 1L, 4L));
+    }
+
+    @Test
+    void foldIgnoresCaseAndDiacritics() {
+        assertThat(ArticleSearchIndex.fold("Crème Brûlée")).isEqualTo("CREME BRULEE");
+        assertThat(ArticleSearchIndex.fold("Ångström")).isEqualTo("ANGSTROM");
+
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            assertThat(ArticleSearchIndex.fold("istanbul")).isEqualTo("ISTANBUL");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        build(ArticleSearchIndex.MAX_INDEX_BYTES, text(1L, "Crème brûlée", null, null));
+        assertThat(index.search("CREME", 10)).contains(List.of(1L));
+        assertThat(index.search("brûl", 10)).contains(List.of(1L));
+    }
+
+    @Test
+    void trigramsAreDistinct() {
+        assertThat(ArticleSearchIndex.trigrams("AB")).isEmpty();
+        assertThat(ArticleSearchIndex.trigrams("AAAAA")).hasSize(1);
+        assertThat(ArticleSearchIndex.trigrams("ABCABC")).hasSize(3);
+    }
+
+    @Test
+    void buildAboveTheCapDropsTheIndex() {
+        build(64, text(1L, "A name long enough", "and a summary", "to take more than sixty-four posting bytes"));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.documentCount()).isZero();
+        assertThat(index.indexBytes()).isZero();
+        assertThat(index.search("name", 10)).isEmpty();
+
+        // A dropped index takes no writes until it is rebuilt
+        index.index(text(2L, "name", null, null));
+        assertThat(index.documentCount()).isZero();
+    }
+
+    @Test
+    void compactionAboveTheCapDropsTheIndex() {
+        build(64, text(1L, "short", null, null));
+        assertThat(index.isReady()).isTrue();
+
+        index.index(text(2L, "A name long enough", "and a summary", "to take more than the posting bytes cap"));
+        index.compact();
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.documentCount()).isZero();
+        assertThat(index.search("short", 10)).isEmpty();
+    }
+
+    private void build(long maxIndexBytes, ArticleText... texts) {
+        when(articleRepository.findTextAfter(eq(0L), any())).thenReturn(List.of(texts));
+        index = new ArticleSearchIndex(articleRepository, Optional.empty(), maxIndexBytes);
+        index.rebuild();
+    }
+
+    private static ArticleText text(Long id, String name, String summary, String content) {
+        return new ArticleText(id, name, summary, content);
+    }
+}
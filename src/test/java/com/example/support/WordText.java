@@ -0,0 +1,31 @@
+package com.example.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random word-like text, so that fixtures exercise serializers, compressors and searches with realistic content
+ */
+public final class WordText {
+
+    private static final String[] WORDS = {
+            "redis", "cache", "cluster", "spring", "article", "category", "latency", "throughput", "the", "a",
+            "of", "and", "to", "in", "is", "for", "with", "on", "that", "by", "configuration", "serialization"
+    };
+
+    private WordText() {
+    }
+
+    /**
+     * @param size Length of the text
+     * @return Random words, with an occasional sentence end
+     */
+    public static String of(int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder text = new StringBuilder(size + 16);
+        while (text.length() < size) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        text.setLength(size);
+        return text.toString();
+    }
+}
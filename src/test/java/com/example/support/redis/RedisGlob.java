@@ -0,0 +1,91 @@
+package com.example.support.redis;
+
+/**
+ * Glob-style matching of keys and channels, with the syntax of Redis KEYS, SCAN MATCH and PSUBSCRIBE:
+ * {@code *}, {@code ?}, {@code [abc]}, {@code [^abc]}, {@code [a-z]} and {@code \} escapes
+ */
+final class RedisGlob {
+
+    private RedisGlob() {
+    }
+
+    static boolean matches(String pattern, String value) {
+        return matches(pattern, 0, value, 0);
+    }
+
+    private static boolean matches(String pattern, int p, String value, int v) {
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            switch (c) {
+                case '*' -> {
+                    while (p + 1 < pattern.length() && pattern.charAt(p + 1) == '*') {
+                        p++;
+                    }
+                    if (p + 1 == pattern.length()) {
+                        return true;
+                    }
+                    for (int i = v; i <= value.length(); i++) {
+                        if (matches(pattern, p + 1, value, i)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                case '?' -> {
+                    if (v >= value.length()) {
+                        return false;
+                    }
+                    v++;
+                }
+                case '[' -> {
+                    if (v >= value.length()) {
+                        return false;
+                    }
+                    int end = p + 1;
+                    boolean negate = end < pattern.length() && pattern.charAt(end) == '^';
+                    if (negate) {
+                        end++;
+                    }
+                    boolean matched = false;
+                    char target = value.charAt(v);
+                    while (end < pattern.length() && pattern.charAt(end) != ']') {
+                        char from = pattern.charAt(end);
+                        if (from == '\\' && end + 1 < pattern.length()) {
+                            from = pattern.charAt(++end);
+                        }
+                        if (end + 2 < pattern.length() && pattern.charAt(end + 1) == '-' && pattern.charAt(end + 2) != ']') {
+                            char to = pattern.charAt(end + 2);
+                            matched |= target >= Math.min(from, to) && target <= Math.max(from, to);
+                            end += 3;
+                        } else {
+                            matched |= target == from;
+                            end++;
+                        }
+                    }
+                    if (matched == negate) {
+                        return false;
+                    }
+                    p = end;
+                    v++;
+                }
+                case '\\' -> {
+                    if (p + 1 < pattern.length()) {
+                        p++;
+                    }
+                    if (v >= value.length() || pattern.charAt(p) != value.charAt(v)) {
+                        return false;
+                    }
+                    v++;
+                }
+                default -> {
+                    if (v >= value.length() || c != value.charAt(v)) {
+                        return false;
+                    }
+                    v++;
+                }
+            }
+            p++;
+        }
+        return v == value.length();
+    }
+}
@@ -0,0 +1,853 @@
+package com.example.support.redis;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stand-in for a standalone Redis server speaking RESP2, for tests and benchmarks without a live Redis.
+ * <p>
+ * Implements the commands used by the application through Jedis, RedisTemplate and the Redis cache manager:
+ * strings with expiry (GET, SET with EX/PX/NX/XX/GET, PSETEX, MGET, INCR), keys (DEL, UNLINK, EXISTS, EXPIRE,
+ * PEXPIREAT, TTL, KEYS, SCAN), HyperLogLog (PFADD, PFCOUNT, counted exactly), pub/sub and EVAL. Lua is not
+ * interpreted: scripts are run by Java {@link ScriptHandler}s registered for their exact text.
+ * <p>
+ * Commands execute one at a time, like on Redis. An injected latency is paid once per round trip, i.e. once for all
+ * the commands of a pipeline that arrive together, so that pipelining and near-cache gains can be measured.
+ */
+@Slf4j
+public class RespServer implements AutoCloseable {
+
+    private static final Status OK = new Status("OK");
+    private static final Status PONG = new Status("PONG");
+    private static final Status QUIT = new Status("OK");
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final NavigableMap<String, Entry> data = new TreeMap<>();
+    private final Map<Long, String> scanCursors = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > 1024;
+        }
+    };
+    private final AtomicLong nextCursor = new AtomicLong(1);
+
+    private final Map<String, Set<Connection>> channels = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> patterns = new ConcurrentHashMap<>();
+    private final Map<String, ScriptHandler> scripts = new ConcurrentHashMap<>();
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong roundTripCount = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+
+    private RespServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.acceptor = Thread.ofPlatform().daemon().name("resp-server-" + getPort()).start(this::accept);
+    }
+
+    /**
+     * Start a server on a free port of the loopback interface
+     */
+    public static RespServer start() {
+        try {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            return new RespServer(socket);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start RESP server", e);
+        }
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Set the latency added to every round trip, simulating the network distance to Redis
+     */
+    public RespServer withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Run a script with a Java handler instead of Lua
+     *
+     * @param script  Exact script text sent with EVAL
+     * @param handler Implementation of the script
+     */
+    public RespServer withScript(String script, ScriptHandler handler) {
+        scripts.put(sha1(script.getBytes(StandardCharsets.UTF_8)), handler);
+        return this;
+    }
+
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    public long getRoundTripCount() {
+        return roundTripCount.get();
+    }
+
+    /**
+     * Remove every key, keeping scripts, subscriptions and latency
+     */
+    public void flushAll() {
+        lock.lock();
+        try {
+            data.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        connections.forEach(Connection::close);
+        acceptor.interrupt();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                Thread.ofVirtual().name("resp-connection").start(connection::serve);
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("RESP server accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Java implementation of a Lua script, executed atomically
+     */
+    @FunctionalInterface
+    public interface ScriptHandler {
+        /**
+         * @param redis Equivalent of {@code redis.call}
+         * @param keys  KEYS
+         * @param args  ARGV
+         * @return Reply: null (nil), Long, byte[], String (bulk), Boolean or a List of those
+         */
+        Object run(RedisCall redis, List<byte[]> keys, List<byte[]> args);
+    }
+
+    /**
+     * Command execution from within a script
+     */
+    @FunctionalInterface
+    public interface RedisCall {
+        /**
+         * Execute a command, e.g. {@code call("SET", key, value)}
+         *
+         * @param args Command name and arguments, as String or byte[]
+         * @return Reply: null (nil), Long, byte[], String (status) or a List of those
+         */
+        Object call(Object... args);
+    }
+
+    private record Status(String value) {
+    }
+
+    private record Error(String message) {
+    }
+
+    private static final class Entry {
+        private Object value;
+        private long expiresAt;
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt > 0 && expiresAt <= now;
+        }
+    }
+
+    private static final class WrongTypeException extends RuntimeException {
+        private WrongTypeException() {
+            super("WRONGTYPE Operation against a key holding the wrong kind of value", null, false, false);
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final Set<String> subscribedChannels = new CopyOnWriteArraySet<>();
+        private final Set<String> subscribedPatterns = new CopyOnWriteArraySet<>();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void serve() {
+            try {
+                boolean newRoundTrip = true;
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    if (newRoundTrip) {
+                        roundTripCount.incrementAndGet();
+                        pause(latency);
+                    }
+                    commandCount.incrementAndGet();
+
+                    Object reply = isSubscribed() ? executeSubscribed(this, command) : execute(this, command);
+                    synchronized (out) {
+                        writeReply(out, reply);
+                        newRoundTrip = in.available() == 0;
+                        if (newRoundTrip) {
+                            out.flush();
+                        }
+                    }
+                    if (reply instanceof Status status && status == QUIT) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            } finally {
+                close();
+            }
+        }
+
+        private boolean isSubscribed() {
+            return !subscribedChannels.isEmpty() || !subscribedPatterns.isEmpty();
+        }
+
+        private void push(List<Object> message) {
+            synchronized (out) {
+                try {
+                    writeReply(out, message);
+                    out.flush();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            connections.remove(this);
+            subscribedChannels.forEach(channel -> unsubscribe(channels, channel, this));
+            subscribedPatterns.forEach(pattern -> unsubscribe(patterns, pattern, this));
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    private Object executeSubscribed(Connection connection, List<byte[]> command) {
+        if (command.isEmpty()) {
+            return execute(connection, command);
+        }
+        String name = name(command);
+        return switch (name) {
+            case "SUBSCRIBE", "PSUBSCRIBE", "UNSUBSCRIBE", "PUNSUBSCRIBE" -> execute(connection, command);
+            case "PING" -> List.of(bytes("pong"), command.size() > 1 ? command.get(1) : bytes(""));
+            case "QUIT" -> QUIT;
+            default -> new Error("ERR Can't execute '" + name.toLowerCase(Locale.ROOT)
+                    + "': only (P)SUBSCRIBE / (P)UNSUBSCRIBE / PING / QUIT are allowed in this context");
+        };
+    }
+
+    private Object execute(Connection connection, List<byte[]> command) {
+        try {
+            String name = name(command);
+            return switch (name) {
+                case "SUBSCRIBE" ->
+                        subscribe(connection, command, channels, connection.subscribedChannels, "subscribe");
+                case "PSUBSCRIBE" ->
+                        subscribe(connection, command, patterns, connection.subscribedPatterns, "psubscribe");
+                case "UNSUBSCRIBE" ->
+                        unsubscribeAll(connection, command, channels, connection.subscribedChannels, "unsubscribe");
+                case "PUNSUBSCRIBE" ->
+                        unsubscribeAll(connection, command, patterns, connection.subscribedPatterns, "punsubscribe");
+                case "PUBLISH" -> publish(string(command.get(1)), command.get(2));
+                case "QUIT" -> QUIT;
+                default -> executeLocked(command);
+            };
+        } catch (WrongTypeException e) {
+            return new Error(e.getMessage());
+        } catch (NumberFormatException e) {
+            return new Error("ERR value is not an integer or out of range");
+        } catch (IndexOutOfBoundsException e) {
+            if (command.isEmpty()) {
+                return new Error("ERR empty command");
+            }
+            return new Error("ERR wrong number of arguments for '" + name(command).toLowerCase(Locale.ROOT)
+                    + "' command");
+        }
+    }
+
+    private Object executeLocked(List<byte[]> command) {
+        lock.lock();
+        try {
+            return dispatch(command);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object dispatch(List<byte[]> c) {
+        long now = System.currentTimeMillis();
+        return switch (name(c)) {
+            case "PING" -> c.size() > 1 ? c.get(1) : PONG;
+            case "ECHO" -> c.get(1);
+            case "SELECT", "AUTH", "CLIENT", "READONLY", "READWRITE" -> OK;
+            case "FLUSHALL", "FLUSHDB" -> {
+                data.clear();
+                yield OK;
+            }
+            case "DBSIZE" -> (long) keys("*", now).size();
+            case "INFO" -> bytes("# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n");
+            case "GET" -> getString(string(c.get(1)), now);
+            case "MGET" -> {
+                List<Object> values = new ArrayList<>(c.size() - 1);
+                for (int i = 1; i < c.size(); i++) {
+                    Entry entry = get(string(c.get(i)), now);
+                    values.add(entry != null && entry.value instanceof byte[] value ? value : null);
+                }
+                yield values;
+            }
+            case "SET" -> set(c, now);
+            case "SETEX" -> {
+                put(string(c.get(1)), c.get(3), now + Long.parseLong(string(c.get(2))) * 1000);
+                yield OK;
+            }
+            case "PSETEX" -> {
+                put(string(c.get(1)), c.get(3), now + Long.parseLong(string(c.get(2))));
+                yield OK;
+            }
+            case "INCR" -> incrBy(string(c.get(1)), 1, now);
+            case "INCRBY" -> incrBy(string(c.get(1)), Long.parseLong(string(c.get(2))), now);
+            case "DECR" -> incrBy(string(c.get(1)), -1, now);
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < c.size(); i++) {
+                    if (get(string(c.get(i)), now) != null) {
+                        data.remove(string(c.get(i)));
+                        removed++;
+                    }
+                }
+                yield removed;
+            }
+            case "EXISTS" -> {
+                long existing = 0;
+                for (int i = 1; i < c.size(); i++) {
+                    if (get(string(c.get(i)), now) != null) {
+                        existing++;
+                    }
+                }
+                yield existing;
+            }
+            case "EXPIRE" -> expire(string(c.get(1)), now + Long.parseLong(string(c.get(2))) * 1000, now);
+            case "PEXPIRE" -> expire(string(c.get(1)), now + Long.parseLong(string(c.get(2))), now);
+            case "PEXPIREAT" -> expire(string(c.get(1)), Long.parseLong(string(c.get(2))), now);
+            case "PERSIST" -> {
+                Entry entry = get(string(c.get(1)), now);
+                if (entry == null || entry.expiresAt == 0) {
+                    yield 0L;
+                }
+                entry.expiresAt = 0;
+                yield 1L;
+            }
+            case "TTL" -> ttl(string(c.get(1)), now, 1000);
+            case "PTTL" -> ttl(string(c.get(1)), now, 1);
+            case "TYPE" -> {
+                Entry entry = get(string(c.get(1)), now);
+                // HyperLogLogs are strings on Redis too
+                yield new Status(entry == null ? "none" : "string");
+            }
+            case "KEYS" -> {
+                List<Object> keys = new ArrayList<>();
+                keys(string(c.get(1)), now).forEach(key -> keys.add(bytes(key)));
+                yield keys;
+            }
+            case "SCAN" -> scan(c, now);
+            case "PFADD" -> pfAdd(c, now);
+            case "PFCOUNT" -> {
+                Set<String> union = new HashSet<>();
+                for (int i = 1; i < c.size(); i++) {
+                    union.addAll(hyperLogLog(string(c.get(i)), now, false));
+                }
+                yield (long) union.size();
+            }
+            case "EVAL" -> eval(sha1(c.get(1)), c);
+            case "EVALSHA" -> eval(string(c.get(1)).toLowerCase(Locale.ROOT), c);
+            case "SCRIPT" -> script(c);
+            default -> new Error("ERR unknown command '" + name(c).toLowerCase(Locale.ROOT) + "'");
+        };
+    }
+
+    private Object set(List<byte[]> c, long now) {
+        String key = string(c.get(1));
+        boolean nx = false;
+        boolean xx = false;
+        boolean keepTtl = false;
+        boolean returnOld = false;
+        long expiresAt = 0;
+        for (int i = 3; i < c.size(); i++) {
+            switch (name(c.get(i))) {
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                case "KEEPTTL" -> keepTtl = true;
+                case "GET" -> returnOld = true;
+                case "EX" -> expiresAt = now + Long.parseLong(string(c.get(++i))) * 1000;
+                case "PX" -> expiresAt = now + Long.parseLong(string(c.get(++i)));
+                case "EXAT" -> expiresAt = Long.parseLong(string(c.get(++i))) * 1000;
+                case "PXAT" -> expiresAt = Long.parseLong(string(c.get(++i)));
+                default -> {
+                    return new Error("ERR syntax error");
+                }
+            }
+        }
+
+        Entry existing = get(key, now);
+        Object old = returnOld ? getString(key, now) : null;
+        if ((nx && existing != null) || (xx && existing == null)) {
+            return returnOld ? old : null;
+        }
+        if (keepTtl && existing != null) {
+            expiresAt = existing.expiresAt;
+        }
+        put(key, c.get(2), expiresAt);
+        return returnOld ? old : OK;
+    }
+
+    private Object incrBy(String key, long increment, long now) {
+        Object current = getString(key, now);
+        long value = current != null ? Long.parseLong(string((byte[]) current)) : 0;
+        value += increment;
+        Entry entry = get(key, now);
+        if (entry != null) {
+            entry.value = bytes(Long.toString(value));
+        } else {
+            put(key, bytes(Long.toString(value)), 0);
+        }
+        return value;
+    }
+
+    private Object expire(String key, long expiresAt, long now) {
+        Entry entry = get(key, now);
+        if (entry == null) {
+            return 0L;
+        }
+        entry.expiresAt = expiresAt;
+        if (entry.isExpired(now)) {
+            data.remove(key);
+        }
+        return 1L;
+    }
+
+    private Object ttl(String key, long now, long unit) {
+        Entry entry = get(key, now);
+        if (entry == null) {
+            return -2L;
+        }
+        if (entry.expiresAt == 0) {
+            return -1L;
+        }
+        return (entry.expiresAt - now + unit / 2) / unit;
+    }
+
+    private Object scan(List<byte[]> c, long now) {
+        long cursor = Long.parseLong(string(c.get(1)));
+        String pattern = "*";
+        int count = 10;
+        for (int i = 2; i < c.size(); i++) {
+            switch (name(c.get(i))) {
+                case "MATCH" -> pattern = string(c.get(++i));
+                case "COUNT" -> count = Integer.parseInt(string(c.get(++i)));
+                case "TYPE" -> i++;
+                default -> {
+                    return new Error("ERR syntax error");
+                }
+            }
+        }
+
+        // Cursors resume after the last key returned, so keys deleted while scanning never cause others to be skipped
+        String after = cursor == 0 ? null : scanCursors.remove(cursor);
+        if (cursor != 0 && after == null) {
+            return List.of(bytes("0"), List.of());
+        }
+        Iterator<Map.Entry<String, Entry>> iterator = (after == null ? data : data.tailMap(after, false))
+                .entrySet().iterator();
+
+        List<Object> keys = new ArrayList<>();
+        String last = null;
+        int visited = 0;
+        while (iterator.hasNext() && visited < count) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            visited++;
+            last = entry.getKey();
+            if (entry.getValue().isExpired(now)) {
+                iterator.remove();
+            } else if (RedisGlob.matches(pattern, entry.getKey())) {
+                keys.add(bytes(entry.getKey()));
+            }
+        }
+
+        long next = 0;
+        if (iterator.hasNext()) {
+            next = nextCursor.getAndIncrement();
+            scanCursors.put(next, last);
+        }
+        return List.of(bytes(Long.toString(next)), keys);
+    }
+
+    private Object pfAdd(List<byte[]> c, long now) {
+        String key = string(c.get(1));
+        boolean created = get(key, now) == null;
+        Set<String> elements = hyperLogLog(key, now, true);
+        boolean changed = false;
+        for (int i = 2; i < c.size(); i++) {
+            changed |= elements.add(string(c.get(i)));
+        }
+        return created || changed ? 1L : 0L;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> hyperLogLog(String key, long now, boolean create) {
+        Entry entry = get(key, now);
+        if (entry == null) {
+            if (!create) {
+                return Set.of();
+            }
+            entry = new Entry(new HashSet<String>());
+            data.put(key, entry);
+        }
+        if (!(entry.value instanceof Set<?>)) {
+            throw new WrongTypeException();
+        }
+        return (Set<String>) entry.value;
+    }
+
+    private Object eval(String sha, List<byte[]> c) {
+        ScriptHandler handler = scripts.get(sha);
+        if (handler == null) {
+            return new Error("NOSCRIPT No script registered with RespServer.withScript for " + sha);
+        }
+        int numKeys = Integer.parseInt(string(c.get(2)));
+        List<byte[]> keys = c.subList(3, 3 + numKeys);
+        List<byte[]> args = c.subList(3 + numKeys, c.size());
+        return fromScript(handler.run(this::call, keys, args));
+    }
+
+    private Object script(List<byte[]> c) {
+        return switch (name(c.get(1))) {
+            case "LOAD" -> bytes(sha1(c.get(2)));
+            case "EXISTS" -> {
+                List<Object> exists = new ArrayList<>();
+                for (int i = 2; i < c.size(); i++) {
+                    exists.add(scripts.containsKey(string(c.get(i)).toLowerCase(Locale.ROOT)) ? 1L : 0L);
+                }
+                yield exists;
+            }
+            case "FLUSH" -> OK;
+            default -> new Error("ERR unknown SCRIPT subcommand");
+        };
+    }
+
+    // redis.call from a script handler, already holding the lock
+    private Object call(Object... args) {
+        List<byte[]> command = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            command.add(arg instanceof byte[] raw ? raw : bytes(String.valueOf(arg)));
+        }
+        Object reply = dispatch(command);
+        if (reply instanceof Error error) {
+            throw new IllegalStateException(error.message());
+        }
+        return reply instanceof Status status ? status.value() : reply;
+    }
+
+    private static Object fromScript(Object value) {
+        if (value instanceof Integer number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            return bytes(text);
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? 1L : null;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> converted = new ArrayList<>(list.size());
+            list.forEach(element -> converted.add(fromScript(element)));
+            return converted;
+        }
+        return value;
+    }
+
+    private Object subscribe(Connection connection, List<byte[]> c, Map<String, Set<Connection>> registry,
+                             Set<String> subscriptions, String kind) {
+        for (int i = 1; i < c.size(); i++) {
+            String channel = string(c.get(i));
+            registry.computeIfAbsent(channel, key -> new CopyOnWriteArraySet<>()).add(connection);
+            subscriptions.add(channel);
+            List<Object> reply = List.of(bytes(kind), c.get(i), subscriptionCount(connection));
+            if (i < c.size() - 1) {
+                connection.push(reply);
+            } else {
+                return reply;
+            }
+        }
+        return new Error("ERR wrong number of arguments for '" + kind + "' command");
+    }
+
+    private Object unsubscribeAll(Connection connection, List<byte[]> c, Map<String, Set<Connection>> registry,
+                                  Set<String> subscriptions, String kind) {
+        List<String> targets = new ArrayList<>();
+        for (int i = 1; i < c.size(); i++) {
+            targets.add(string(c.get(i)));
+        }
+        if (targets.isEmpty()) {
+            targets.addAll(subscriptions);
+        }
+        if (targets.isEmpty()) {
+            return Arrays.asList(bytes(kind), null, 0L);
+        }
+
+        Object last = null;
+        for (int i = 0; i < targets.size(); i++) {
+            String channel = targets.get(i);
+            subscriptions.remove(channel);
+            unsubscribe(registry, channel, connection);
+            List<Object> reply = new ArrayList<>(List.of(bytes(kind), bytes(channel), subscriptionCount(connection)));
+            if (i < targets.size() - 1) {
+                connection.push(reply);
+            } else {
+                last = reply;
+            }
+        }
+        return last;
+    }
+
+    private static void unsubscribe(Map<String, Set<Connection>> registry, String channel, Connection connection) {
+        Set<Connection> subscribers = registry.get(channel);
+        if (subscribers != null) {
+            subscribers.remove(connection);
+        }
+    }
+
+    private static long subscriptionCount(Connection connection) {
+        return connection.subscribedChannels.size() + connection.subscribedPatterns.size();
+    }
+
+    private Object publish(String channel, byte[] message) {
+        long receivers = 0;
+        for (Connection subscriber : channels.getOrDefault(channel, Set.of())) {
+            subscriber.push(List.of(bytes("message"), bytes(channel), message));
+            receivers++;
+        }
+        for (Map.Entry<String, Set<Connection>> pattern : patterns.entrySet()) {
+            if (RedisGlob.matches(pattern.getKey(), channel)) {
+                for (Connection subscriber : pattern.getValue()) {
+                    subscriber.push(List.of(bytes("pmessage"), bytes(pattern.getKey()), bytes(channel), message));
+                    receivers++;
+                }
+            }
+        }
+        return receivers;
+    }
+
+    private Entry get(String key, long now) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.isExpired(now)) {
+            data.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private Object getString(String key, long now) {
+        Entry entry = get(key, now);
+        if (entry == null) {
+            return null;
+        }
+        if (!(entry.value instanceof byte[] value)) {
+            throw new WrongTypeException();
+        }
+        return value;
+    }
+
+    private void put(String key, byte[] value, long expiresAt) {
+        Entry entry = new Entry(value);
+        entry.expiresAt = expiresAt;
+        data.put(key, entry);
+    }
+
+    private List<String> keys(String pattern, long now) {
+        List<String> keys = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> iterator = data.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getValue().isExpired(now)) {
+                iterator.remove();
+            } else if (RedisGlob.matches(pattern, entry.getKey())) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("Only RESP arrays are supported as commands");
+        }
+        int count = (int) readNumber(in);
+        List<byte[]> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected a bulk string");
+            }
+            int length = (int) readNumber(in);
+            byte[] argument = in.readNBytes(length);
+            if (argument.length < length) {
+                throw new EOFException();
+            }
+            in.skipNBytes(2);
+            command.add(argument);
+        }
+        return command;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+
+    private static void writeReply(OutputStream out, Object reply) throws IOException {
+        if (reply == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof Status status) {
+            out.write(('+' + status.value() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof Error error) {
+            out.write(('-' + error.message() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof Long number) {
+            out.write((":" + number + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof byte[] bulk) {
+            out.write(('$' + Integer.toString(bulk.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(bulk);
+            out.write('\r');
+            out.write('\n');
+        } else if (reply instanceof List<?> list) {
+            out.write(('*' + Integer.toString(list.size()) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (Object element : list) {
+                writeReply(out, element);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported reply type " + reply.getClass());
+        }
+    }
+
+    private static void pause(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String name(List<byte[]> command) {
+        return name(command.get(0));
+    }
+
+    private static String name(byte[] argument) {
+        return new String(argument, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+    }
+
+    // Keys are kept as ISO-8859-1 strings, which map every byte to one char and back
+    private static String string(byte[] raw) {
+        return new String(raw, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String sha1(byte[] script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script);
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.support.redis;
+
+import com.example.config.cache.LeaseScripts;
+import com.example.config.cache.LeasedCache;
+import com.example.config.cache.RedisKeyScanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespServerTest {
+
+    private RespServer server;
+    private JedisConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        server = LeaseScripts.register(RespServer.start());
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(server.getHost(), server.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @Test
+    void stringCommandsHonourExpiry() throws InterruptedException {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(bytes("a"), bytes("1"));
+            connection.stringCommands().set(bytes("b"), bytes("2"), Expiration.milliseconds(500), RedisStringCommands.SetOption.upsert());
+            assertThat(connection.stringCommands().set(bytes("a"), bytes("x"), Expiration.persistent(), RedisStringCommands.SetOption.ifAbsent())).isFalse();
+
+            assertThat(connection.stringCommands().mGet(bytes("a"), bytes("b"), bytes("c")))
+                    .containsExactly(bytes("1"), bytes("2"), null);
+            assertThat(connection.keyCommands().ttl(bytes("a"))).isEqualTo(-1L);
+            assertThat(connection.keyCommands().pTtl(bytes("b"))).isBetween(1L, 500L);
+            assertThat(connection.stringCommands().incr(bytes("counter"))).isEqualTo(1L);
+
+            Thread.sleep(600);
+            assertThat(connection.stringCommands().get(bytes("b"))).isNull();
+            assertThat(connection.keyCommands().ttl(bytes("b"))).isEqualTo(-2L);
+        }
+    }
+
+    @Test
+    void emptyCommandRepliesWithErrorAndKeepsTheConnection() throws IOException {
+        try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+            socket.getOutputStream().write(bytes("*0\r\n*1\r\n$4\r\nPING\r\n"));
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            assertThat(in.readLine()).isEqualTo("-ERR empty command");
+            assertThat(in.readLine()).isEqualTo("+PONG");
+        }
+    }
+
+    @Test
+    void scanVisitsEveryKeyWhileKeysAreUnlinked() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            for (int i = 0; i < 250; i++) {
+                connection.stringCommands().set(bytes("cache::" + i), bytes("v"));
+            }
+            connection.stringCommands().set(bytes("other"), bytes("v"));
+
+            long scanned = new RedisKeyScanner(20).scan(connection, bytes("cache::*"),
+                    batch -> connection.keyCommands().unlink(batch.toArray(new byte[0][])));
+
+            assertThat(scanned).isEqualTo(250);
+            assertThat(connection.keyCommands().keys(bytes("*"))).containsExactly(bytes("other"));
+        }
+    }
+
+    @Test
+    void publishedMessagesReachSubscribers() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        List<String> messages = new ArrayList<>();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            messages.add(new String(message.getBody(), StandardCharsets.UTF_8));
+            received.countDown();
+        }, new ChannelTopic("invalidation"));
+        container.afterPropertiesSet();
+        container.start();
+        try {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (connection.publish(bytes("invalidation"), bytes("evict")) == 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+            }
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(messages).containsExactly("evict");
+        } finally {
+            container.destroy();
+        }
+    }
+
+    @Test
+    void pipelinePaysLatencyOncePerRoundTrip() {
+        server.withLatency(Duration.ofMillis(20));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            long roundTrips = server.getRoundTripCount();
+            long commands = server.getCommandCount();
+            connection.openPipeline();
+            for (int i = 0; i < 50; i++) {
+                connection.stringCommands().set(bytes("k" + i), bytes("v"));
+            }
+            connection.closePipeline();
+
+            // Wall time is not asserted: the first use of a connection is dominated by warm-up
+            assertThat(server.getCommandCount() - commands).isEqualTo(50);
+            assertThat(server.getRoundTripCount() - roundTrips).isLessThanOrEqualTo(2);
+        } finally {
+            server.withLatency(Duration.ZERO);
+        }
+    }
+
+    @Test
+    void leasedCacheStoresLoadedValueThroughScript() {
+        RedisCacheManager cacheManager = RedisCacheManager.builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory))
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)))
+                .build();
+        RedisCache redisCache = (RedisCache) cacheManager.getCache("article_by_path");
+        LeasedCache cache = new LeasedCache(redisCache, redisCache.getCacheConfiguration(), connectionFactory,
+                Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofMillis(10));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("dto_/a", () -> "loaded-" + loads.incrementAndGet())).isEqualTo("loaded-1");
+        assertThat(cache.get("dto_/a", () -> "loaded-" + loads.incrementAndGet())).isEqualTo("loaded-1");
+        assertThat(loads).hasValue(1);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            assertThat(connection.keyCommands().keys(bytes("*lease*"))).isEmpty();
+            assertThat(connection.keyCommands().ttl(bytes("article_by_path::dto_/a"))).isBetween(1L, 300L);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}